@@ -0,0 +1,45 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application for benchmarks on its own in-memory H2 database with SQL
+ * logging switched off, so that log I/O does not dominate the measurements. Rate and
+ * concurrency limits are raised out of reach so load generators are not throttled.
+ */
+final class BenchmarkApplications {
+
+    private BenchmarkApplications() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType type, String... extraArgs) {
+        return start(type, new Class<?>[0], extraArgs);
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType type, Class<?>[] extraSources, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--server.port=0",
+                "--bookstore.ratelimit.requests-per-second=1000000000",
+                "--bookstore.ratelimit.burst=1000000",
+                "--bookstore.concurrency.initial-limit=100000",
+                "--bookstore.concurrency.min-limit=100000",
+                "--bookstore.concurrency.max-limit=100000"));
+        args.addAll(Arrays.asList(extraArgs));
+        SpringApplication application = new SpringApplication(DemoApplication.class);
+        application.addPrimarySources(Arrays.asList(extraSources));
+        application.setWebApplicationType(type);
+        return application.run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.BookRequest;
+import com.example.demo.service.BookImportService;
+import com.example.demo.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of POST /books/bulk compared with one addBook call per title.
+ * Scores are reported per inserted row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkImportBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"500"})
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookImportService bookImportService;
+
+    private List<BookRequest> requests;
+
+    private int round;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplications.start(WebApplicationType.NONE, "--bookstore.import.batch-size=" + batchSize);
+        bookService = context.getBean(BookService.class);
+        bookImportService = context.getBean(BookImportService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void newPayload() {
+        round++;
+        requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(new BookRequest("Feed " + round + " Title " + i, "Feed Author", "Feed Publisher", 2024));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void perCallAddBook() {
+        for (BookRequest request : requests) {
+            bookService.addBook(request);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object bulkImport() {
+        return bookImportService.importBooks(requests);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.BookResponse;
+import com.example.demo.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtered listing on a 1M-row catalog with and without the secondary indexes. The query plans
+ * are printed during setup so the switch from a table scan to an index range lookup is visible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilteredQueryBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    private static final List<String> SECONDARY_INDEXES =
+            List.of("ix_book_author", "ix_book_publisher", "ix_book_year_released");
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplications.start(WebApplicationType.NONE, "--spring.sql.init.mode=never");
+        bookService = context.getBean(BookService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO book (name, author, publisher, year_released, version) "
+                + "SELECT 'Title ' || X, 'Author ' || MOD(X, 10000), 'Publisher ' || MOD(X, 500), 1900 + MOD(X, 125), 0 "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        if (!indexed) {
+            SECONDARY_INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+        }
+        jdbcTemplate.execute("ANALYZE");
+        explain(jdbcTemplate, "SELECT * FROM book WHERE author = 'Author 42' LIMIT 20");
+        explain(jdbcTemplate, "SELECT * FROM book WHERE publisher = 'Publisher 7' AND year_released BETWEEN 1990 AND 1995 LIMIT 20");
+        explain(jdbcTemplate, "SELECT COUNT(*) FROM book WHERE year_released BETWEEN 2000 AND 2001");
+    }
+
+    private void explain(JdbcTemplate jdbcTemplate, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        System.out.println("[indexed=" + indexed + "] " + plan.replace('\n', ' '));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BookResponse> byAuthor() {
+        return bookService.getBooks(new BookFilter("Author 42", null, null, null), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<BookResponse> byPublisherAndYearRange() {
+        return bookService.getBooks(new BookFilter(null, "Publisher 7", 1990, 1995), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<BookResponse> byYearRange() {
+        return bookService.getBooks(new BookFilter(null, null, 2000, 2001), PageRequest.of(0, 20));
+    }
+}
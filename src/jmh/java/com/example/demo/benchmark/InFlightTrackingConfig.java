@@ -0,0 +1,36 @@
+package com.example.demo.benchmark;
+
+import jakarta.servlet.Filter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts requests being processed by the server and remembers the highest concurrency seen.
+ */
+@Configuration(proxyBeanMethods = false)
+class InFlightTrackingConfig {
+
+    static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+    @Bean
+    FilterRegistrationBean<Filter> inFlightTrackingFilter() {
+        Filter filter = (request, response, chain) -> {
+            int current = IN_FLIGHT.incrementAndGet();
+            MAX_IN_FLIGHT.accumulateAndGet(current, Math::max);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+            }
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BookResponse;
+import com.example.demo.utils.BookMappingHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private final Book book = new Book(1, "The Hobbit", "J.R.R. Tolkien", "George Allen & Unwin", 1937, 0);
+
+    private final BookRequest request = new BookRequest("The Hobbit", "J.R.R. Tolkien", "George Allen & Unwin", 1937);
+
+    @Benchmark
+    public BookResponse convertToDto() {
+        return BookMappingHelper.convertToDto(book);
+    }
+
+    @Benchmark
+    public Book convertToEntity() {
+        return BookMappingHelper.convertToEntity(request);
+    }
+}
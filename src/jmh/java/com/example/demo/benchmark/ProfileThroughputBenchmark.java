@@ -0,0 +1,124 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.cache.BookCache;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BookResponse;
+import com.example.demo.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded service throughput under the default profile (in-memory H2, SQL logged to the
+ * console) versus the prod profile (file-backed H2, SQL logging off, sized Hikari pool).
+ * Unlike the other benchmarks this one keeps each profile's logging settings, since they are
+ * part of what is being compared.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProfileThroughputBenchmark {
+
+    private static final int SEED_BOOKS = 500;
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookCache bookCache;
+
+    private Path dataDir;
+
+    private int firstId;
+
+    @Setup
+    public void setUp() throws IOException {
+        SpringApplication application = new SpringApplication(DemoApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        if (profile.equals("prod")) {
+            dataDir = Files.createTempDirectory("bookstore-bench");
+            context = application.run("--spring.profiles.active=prod", "--bookstore.data-dir=" + dataDir);
+        } else {
+            context = application.run(
+                    "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        }
+        bookService = context.getBean(BookService.class);
+        bookCache = context.getBean(BookCache.class);
+        for (int i = 0; i < SEED_BOOKS; i++) {
+            bookService.addBook(new BookRequest("Seed " + i, "Throughput Author", "Publisher", 2000));
+        }
+        firstId = bookService.searchBooks("seed", PageRequest.of(0, SEED_BOOKS)).getContent().stream()
+                .mapToInt(BookResponse::getId).min().orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (dataDir != null) {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+    }
+
+    private int randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(SEED_BOOKS);
+    }
+
+    @Benchmark
+    public BookResponse getBookByIdUncached() {
+        int id = randomId();
+        bookCache.invalidate(id);
+        return bookService.getBookById(id);
+    }
+
+    @Benchmark
+    public Page<BookResponse> getBooks() {
+        return bookService.getBooks(PageRequest.of(ThreadLocalRandom.current().nextInt(10), 20));
+    }
+
+    @Benchmark
+    public void addBook() {
+        bookService.addBook(new BookRequest("Throughput " + sequence.incrementAndGet(), "Throughput Author",
+                "Publisher", 2024));
+    }
+
+    @Benchmark
+    public void updateBook() {
+        int id = randomId();
+        bookService.updateBook(id, new BookRequest("Seed " + (id - firstId), "Throughput Author",
+                "Publisher " + sequence.incrementAndGet(), 2000));
+    }
+}
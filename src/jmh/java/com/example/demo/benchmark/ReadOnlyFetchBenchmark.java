@@ -0,0 +1,82 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BookResponse;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.service.BookImportService;
+import com.example.demo.utils.BookMappingHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of fetching a 1000-book page (GET /books?size=1000) inside a read-write transaction, as the
+ * service did before, versus the read-only transaction the repository now declares.
+ * Run with {@code -Djmh.args="ReadOnlyFetchBenchmark -prof gc"} to compare gc.alloc.rate.norm (bytes/op).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadOnlyFetchBenchmark {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 1000);
+
+    private ConfigurableApplicationContext context;
+
+    private BookRepo bookRepository;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplications.start(WebApplicationType.NONE);
+        bookRepository = context.getBean(BookRepo.class);
+        List<BookRequest> seed = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            seed.add(new BookRequest("Seed Title " + i, "Seed Author " + (i % 100), "Seed Publisher", 1900 + i % 120));
+        }
+        context.getBean(BookImportService.class).importBooks(seed);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BookResponse> readWriteTransaction() {
+        return readWrite.execute(status -> bookRepository.findAll(PAGE).map(BookMappingHelper::convertToDto));
+    }
+
+    @Benchmark
+    public Page<BookResponse> readOnlyTransaction() {
+        return readOnly.execute(status -> bookRepository.findAll(PAGE).map(BookMappingHelper::convertToDto));
+    }
+}
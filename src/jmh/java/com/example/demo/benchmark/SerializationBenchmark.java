@@ -0,0 +1,89 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookResponse;
+import com.example.demo.utils.BookMappingHelper;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON write path for single books and pages. {@code reflective} disables annotations so
+ * BookResponse goes through the default bean serializer, as before the streaming serializer;
+ * {@code streaming} uses BookResponseSerializer; {@code blackbird} adds the Blackbird module as
+ * registered in the application. Run with {@code -prof gc} to compare gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"20", "1000"})
+    int pageSize;
+
+    @Param({"reflective", "streaming", "blackbird"})
+    String mapper;
+
+    private ObjectMapper objectMapper;
+
+    private List<Book> entities;
+
+    private BookResponse book;
+
+    private Page<BookResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = switch (mapper) {
+            case "reflective" -> JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+            case "streaming" -> JsonMapper.builder().build();
+            default -> JsonMapper.builder().addModule(new BlackbirdModule()).build();
+        };
+        book = BookMappingHelper.convertToDto(
+                new Book(1, "The Hobbit", "J.R.R. Tolkien", "George Allen & Unwin", 1937, 0));
+        entities = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(i -> new Book(i, "Title " + i, "Author " + i, "Publisher " + i, 1900 + i % 120, 0))
+                .toList();
+        page = new PageImpl<>(entities.stream().map(BookMappingHelper::convertToDto).toList(),
+                PageRequest.of(0, pageSize), 100_000);
+    }
+
+    @Benchmark
+    public byte[] serializeBookResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        Page<BookResponse> mapped = new PageImpl<>(entities, page.getPageable(), page.getTotalElements())
+                .map(BookMappingHelper::convertToDto);
+        return objectMapper.writeValueAsBytes(mapped);
+    }
+}
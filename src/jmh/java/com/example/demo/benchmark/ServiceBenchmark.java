@@ -0,0 +1,78 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.BookCache;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BookResponse;
+import com.example.demo.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookService against the seeded embedded H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookCache bookCache;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplications.start(WebApplicationType.NONE);
+        bookService = context.getBean(BookService.class);
+        bookCache = context.getBean(BookCache.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponse getBookByIdCached() {
+        return bookService.getBookById(1);
+    }
+
+    @Benchmark
+    public BookResponse getBookByIdUncached() {
+        bookCache.invalidate(1);
+        return bookService.getBookById(1);
+    }
+
+    @Benchmark
+    public Page<BookResponse> getBooks() {
+        return bookService.getBooks(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public void addBook() {
+        long n = sequence.incrementAndGet();
+        bookService.addBook(new BookRequest("Benchmark Title " + n, "Benchmark Author", "Publisher", 2024));
+    }
+}
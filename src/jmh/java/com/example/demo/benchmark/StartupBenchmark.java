@@ -0,0 +1,68 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the web application, from {@code SpringApplication.run} until the context is
+ * refreshed and Tomcat is listening. Every fork measures a single start in a fresh JVM, so class
+ * loading is included. Run the AOT/CDS-optimized jar by hand for the production numbers (see README).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private Path dataDir;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("bookstore-startup");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = SpringApplication.run(DemoApplication.class,
+                "--spring.profiles.active=" + profile,
+                "--bookstore.data-dir=" + dataDir,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--server.port=0");
+        return context;
+    }
+}
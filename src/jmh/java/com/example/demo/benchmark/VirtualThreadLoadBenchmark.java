@@ -0,0 +1,79 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution (p99 in the JSON result) of DB-bound GET /books pages under 400 concurrent
+ * clients, with Tomcat on its platform-thread pool versus virtual threads. The highest number of
+ * requests the server processed at once is printed at the end of each trial.
+ * The virtual-thread run needs a Java 21 runtime (-Pbenchmark,java21); on older runtimes both
+ * parameter values use platform threads.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(400)
+@State(Scope.Benchmark)
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplications.start(WebApplicationType.SERVLET,
+                new Class<?>[] {InFlightTrackingConfig.class},
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                // Pages 0-4 would otherwise be served from the byte cache without touching the DB
+                "--bookstore.page-cache.max-page=-1");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/books";
+        client = HttpClient.newHttpClient();
+        InFlightTrackingConfig.MAX_IN_FLIGHT.set(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("virtualThreads=" + virtualThreads
+                + " max in-flight requests=" + InFlightTrackingConfig.MAX_IN_FLIGHT.get());
+        context.close();
+    }
+
+    @Benchmark
+    public int getBooksPage() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(5);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + page + "&size=10")).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
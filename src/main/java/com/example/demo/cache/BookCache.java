@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.BookCacheStats;
+import com.example.demo.model.BookResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Read-through cache of {@link BookResponse} objects keyed by book id.
+ * Backed by Caffeine, which evicts with W-TinyLFU once {@code max-size} is reached
+ * and expires entries {@code ttl} after they were loaded.
+ * Also published as the {@code book-by-id} cache meters.
+ */
+@Component
+public class BookCache implements MeterBinder {
+
+    private final Cache<Integer, BookResponse> cache;
+
+    public BookCache(@Value("${bookstore.cache.max-size:10000}") long maxSize,
+                     @Value("${bookstore.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached book or loads it with {@code loader}. Concurrent misses for the
+     * same id wait for a single load; exceptions thrown by the loader are not cached.
+     */
+    public BookResponse get(int id, IntFunction<BookResponse> loader) {
+        return cache.get(id, key -> loader.apply(key));
+    }
+
+    /**
+     * Returns the cached book without loading it, or {@code null}.
+     */
+    public BookResponse getIfPresent(int id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "book-by-id");
+    }
+
+    public BookCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new BookCacheStats(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized JSON of hot {@code GET /books} pages, keyed by page, size, sort and the
+ * request's {@code Origin} (CORS headers depend on it). Hits are written straight from the cached
+ * byte arrays (gzip-compressed when the client accepts it) together with every header the MVC
+ * layer set on the original response, skipping the query, the mapping and Jackson. Any book
+ * change clears the cache; a generation counter keeps responses computed before a change from
+ * being stored after it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class BookPageCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> KEY_PARAMS = Set.of("page", "size", "sort");
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    // Describe the body as it was produced; they are set from the cached entry instead.
+    private static final Set<String> BODY_HEADERS = Set.of(HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT), HttpHeaders.CONTENT_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT));
+
+    private final Cache<String, CachedPage> pages;
+
+    private final int maxPage;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookPageCacheFilter(@Value("${bookstore.page-cache.max-entries:256}") long maxEntries,
+                               @Value("${bookstore.page-cache.max-page:4}") int maxPage) {
+        this.pages = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.maxPage = maxPage;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !"/books".equals(request.getRequestURI().substring(request.getContextPath().length()))
+                || !KEY_PARAMS.containsAll(request.getParameterMap().keySet())
+                || pageNumber(request) > maxPage;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request);
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached != null) {
+            writeCached(cached, request, response);
+            return;
+        }
+
+        long generationBefore = generation.get();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && generation.get() == generationBefore) {
+            byte[] body = wrapper.getContentAsByteArray();
+            byte[] gzip = body.length >= GZIP_MIN_BYTES ? gzip(body) : null;
+            CachedPage page = new CachedPage(body, gzip, wrapper.getHeader(HttpHeaders.ETAG), wrapper.getContentType(),
+                    headers(wrapper));
+            if (generation.get() == generationBefore) {
+                pages.put(key, page);
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static void writeCached(CachedPage cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (cached.etag() != null) {
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && (ifNoneMatch.contains(cached.etag()) || ifNoneMatch.trim().equals("*"))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setContentType(cached.contentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = cached.body();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (cached.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzip();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!BODY_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.putIfAbsent(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static String key(HttpServletRequest request) {
+        String[] sort = request.getParameterValues("sort");
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        return "page=" + pageNumber(request)
+                + "&size=" + (request.getParameter("size") == null ? "" : request.getParameter("size"))
+                + "&sort=" + (sort == null ? "" : String.join("|", sort))
+                + "&origin=" + (origin == null ? "" : origin);
+    }
+
+    private static int pageNumber(HttpServletRequest request) {
+        String page = request.getParameter("page");
+        if (page == null || page.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(page.trim());
+        } catch (NumberFormatException ex) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private record CachedPage(byte[] body, byte[] gzip, String etag, String contentType,
+                              Map<String, List<String>> headers) {
+    }
+}
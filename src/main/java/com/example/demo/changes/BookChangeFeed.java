@@ -0,0 +1,241 @@
+package com.example.demo.changes;
+
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.model.BookChange;
+import com.example.demo.model.BookResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process change feed for catalog mirrors. Every committed book change is appended with a
+ * sequence number to a fixed-size ring buffer. {@code GET /books/changes} replays the buffer
+ * from a given sequence and then streams new changes over Server-Sent Events.
+ * <p>
+ * Writers only copy the change into the ring and offer it to each subscriber's bounded queue.
+ * Each subscriber is drained by its own task, so a slow consumer cannot delay writers or other
+ * subscribers. A subscriber whose queue overflows, or who asks for changes that have already
+ * left the ring, gets a {@code reset} event and is closed; it must resync from {@code GET /books}.
+ */
+@Component
+public class BookChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangeFeed.class);
+
+    static final String RESET_EVENT = "reset";
+
+    private final BookChange[] ring;
+
+    private final int subscriberBuffer;
+
+    private final long emitterTimeoutMillis;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService senders;
+
+    private long lastSeq;
+
+    public BookChangeFeed(@Value("${bookstore.changes.capacity:10000}") int capacity,
+                          @Value("${bookstore.changes.subscriber-buffer:1000}") int subscriberBuffer,
+                          @Value("${bookstore.changes.emitter-timeout:30m}") Duration emitterTimeout) {
+        this.ring = new BookChange[capacity];
+        this.subscriberBuffer = subscriberBuffer;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "book-changes-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records a committed change. The version is the one the write itself produced; the feed
+     * never queries the database.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Integer version = event.getBook() == null ? null : event.getBook().getVersion();
+        append(event.getType(), event.getId(), version, event.getBook());
+    }
+
+    /**
+     * Sequencing, buffering and handing the change to subscribers happen under one lock, so every
+     * subscriber sees changes in sequence order, and one registering concurrently gets each change
+     * either from its replay or live, never both. Offering only enqueues and never blocks.
+     */
+    private void append(BookChangeType type, int id, Integer version, BookResponse book) {
+        synchronized (ring) {
+            BookChange change = new BookChange(++lastSeq, type, id, version, book, Instant.now());
+            ring[(int) (change.getSeq() % ring.length)] = change;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    public long lastSeq() {
+        synchronized (ring) {
+            return lastSeq;
+        }
+    }
+
+    /**
+     * Changes after {@code since}, oldest first, or {@code null} if some of them have already
+     * been overwritten in the ring, or if {@code since} is ahead of the feed. Sequence numbers
+     * restart on every boot, so an ID from before a restart cannot be trusted to mean "up to date".
+     */
+    public List<BookChange> since(long since) {
+        synchronized (ring) {
+            return backlog(since);
+        }
+    }
+
+    private List<BookChange> backlog(long since) {
+        long from = Math.max(since, 0) + 1;
+        if (since > lastSeq || lastSeq - from + 1 > ring.length) {
+            return null;
+        }
+        List<BookChange> changes = new ArrayList<>((int) Math.max(0, lastSeq - from + 1));
+        for (long seq = from; seq <= lastSeq; seq++) {
+            changes.add(ring[(int) (seq % ring.length)]);
+        }
+        return changes;
+    }
+
+    /**
+     * Opens an SSE stream that first replays the changes after {@code since} and then
+     * follows the feed live.
+     */
+    public SseEmitter subscribe(long since) {
+        return subscribe(since, new SseEmitter(emitterTimeoutMillis));
+    }
+
+    public SseEmitter subscribe(long since, SseEmitter emitter) {
+        Subscriber subscriber;
+        List<BookChange> backlog;
+        synchronized (ring) {
+            backlog = backlog(since);
+            subscriber = new Subscriber(emitter, (backlog == null ? 0 : backlog.size()) + subscriberBuffer);
+            if (backlog != null) {
+                subscriber.pending.addAll(backlog);
+                subscribers.add(subscriber);
+            }
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        if (backlog == null) {
+            subscriber.reset("Changes after " + since + " are not buffered on this server; resync from GET /books.");
+        } else {
+            subscriber.schedule();
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Queue<BookChange> pending;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        void offer(BookChange change) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(change)) {
+                subscribers.remove(this);
+                reset("Subscriber fell more than " + subscriberBuffer + " changes behind; resync from GET /books.");
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                BookChange change;
+                while (!closed && (change = pending.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getSeq()))
+                            .name(change.getType().name())
+                            .data(change));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                logger.debug("Change feed subscriber disconnected", ex);
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void reset(String message) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            senders.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data(message));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException ex) {
+                    emitter.completeWithError(ex);
+                }
+            });
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+}
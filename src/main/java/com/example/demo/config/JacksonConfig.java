@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Blackbird with the application's ObjectMapper so the remaining bean-serialized
+ * types (pages, batch and import results) use generated accessors instead of reflection.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    @Bean
+    Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * In prod, springdoc-openapi beans are created on the first request to the API docs or
+ * Swagger UI instead of at startup.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("prod")
+public class SpringdocLazyInitConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    static BeanFactoryPostProcessor springdocLazyInit() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isSpringdoc(BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        if (className != null && className.startsWith(SPRINGDOC_PACKAGE)) {
+            return true;
+        }
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            return factoryMethod != null && factoryMethod.getDeclaringClassName().startsWith(SPRINGDOC_PACKAGE);
+        }
+        return false;
+    }
+}
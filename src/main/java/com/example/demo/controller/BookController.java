@@ -1,18 +1,44 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.BookCache;
+import com.example.demo.changes.BookChangeFeed;
+import com.example.demo.ingest.BookIngestionQueue;
+import com.example.demo.model.BookBatchResponse;
+import com.example.demo.model.BookCacheStats;
+import com.example.demo.model.BookChange;
+import com.example.demo.model.BookFilter;
 import com.example.demo.model.BookRequest;
 import com.example.demo.model.BookResponse;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.model.CursorPage;
+import com.example.demo.model.ExportFormat;
+import com.example.demo.model.IngestionStatus;
+import com.example.demo.service.BookExportService;
+import com.example.demo.service.BookImportService;
 import com.example.demo.service.BookService;
+import com.example.demo.utils.BookEtags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -23,6 +49,21 @@ public class BookController {
     @Autowired
     BookService bookService;
 
+    @Autowired
+    BookImportService bookImportService;
+
+    @Autowired
+    BookExportService bookExportService;
+
+    @Autowired
+    BookIngestionQueue bookIngestionQueue;
+
+    @Autowired
+    BookCache bookCache;
+
+    @Autowired
+    BookChangeFeed bookChangeFeed;
+
     @GetMapping("/welcome")
     @Operation(
             summary = "Welcome Message",
@@ -36,34 +77,217 @@ public class BookController {
         return "Welcome to BookStore API Testing";
     }
 
+    @GetMapping("/cache/stats")
+    @Operation(
+            summary = "Book cache statistics",
+            description = "Hit, miss and eviction counters of the book-by-id cache",
+            responses = @ApiResponse(
+                    responseCode = "200",
+                    description = "Cache statistics",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookCacheStats.class)))
+    )
+    public BookCacheStats getCacheStats() {
+        return bookCache.stats();
+    }
+
     @GetMapping
     @Operation(
             summary = "Get all books (paginated)",
-            description = "Fetch paginated list of books",
+            description = "Fetch paginated list of books, optionally filtered by author, publisher and release year range. The ETag covers the page position and the version of every book on it.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Paginated list of books",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Page unchanged since If-None-Match", content = @Content),
+                    @ApiResponse(responseCode = "400", description = "yearFrom is after yearTo", content = @Content)
+            }
+    )
+    public ResponseEntity<Page<BookResponse>> getBooks(
+            @Parameter(description = "Pageable object", hidden = true)
+            Pageable pageable,
+            @ParameterObject
+            BookFilter filter,
+            @Parameter(hidden = true)
+            WebRequest request) {
+        Page<BookResponse> page = bookService.getBooks(filter, pageable);
+        String etag = BookEtags.forPage(page);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+
+    @GetMapping(params = {"fields", "!after"})
+    @Operation(
+            summary = "Get books with selected fields (paginated)",
+            description = "Sparse fieldsets: only the listed fields are selected from the database and returned. Accepts the same filters as the full listing.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Paginated list of partial books"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field or sort property, or yearFrom is after yearTo", content = @Content)
+            }
+    )
+    public Page<Map<String, Object>> getBooksWithFields(
+            @Parameter(description = "Comma-separated fields: id, name, author, publisher, yearReleased, version", example = "id,name")
+            @RequestParam String fields,
+            @Parameter(description = "Pageable object", hidden = true)
+            Pageable pageable,
+            @ParameterObject
+            BookFilter filter) {
+        return bookService.getBookFields(fields, filter, pageable);
+    }
+
+    @GetMapping(params = "after")
+    @Operation(
+            summary = "Get books by cursor",
+            description = "Keyset pagination ordered by ID. Pass an empty 'after' for the first slice, then the returned nextCursor.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Slice of books"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or size", content = @Content)
+            }
+    )
+    public CursorPage<BookResponse> getBooksByCursor(
+            @Parameter(description = "Opaque cursor from a previous response, empty for the first slice", example = "")
+            @RequestParam String after,
+            @Parameter(description = "Number of books per slice", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return bookService.getBooksAfter(after, size);
+    }
+
+    @GetMapping("/batch")
+    @Operation(
+            summary = "Get books by IDs",
+            description = "Resolve up to 1000 books in one call. Books are returned in request order; unknown IDs are listed in missingIds.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Books found and missing IDs",
+                            content = @Content(schema = @Schema(implementation = BookBatchResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Too many IDs", content = @Content)
+            }
+    )
+    public BookBatchResponse getBooksByIds(
+            @Parameter(description = "Comma-separated book IDs", example = "1,2,3")
+            @RequestParam List<Integer> ids) {
+        return bookService.getBooksByIds(ids);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Get books by IDs (request body)",
+            description = "Same as GET /books/batch for ID lists too long for a query string",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Book IDs",
+                    content = @Content(schema = @Schema(type = "array", example = "[1, 2, 3]"))),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Books found and missing IDs",
+                            content = @Content(schema = @Schema(implementation = BookBatchResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Too many IDs", content = @Content)
+            }
+    )
+    public BookBatchResponse getBooksByIdsInBody(
+            @RequestBody List<Integer> ids) {
+        return bookService.getBooksByIds(ids);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search books",
+            description = "Ranked full-text search over name, author and publisher. Terms are case-insensitive and match as prefixes, "
+                    + "so partial input works for typeahead.",
             responses = @ApiResponse(
                     responseCode = "200",
-                    description = "Paginated list of books",
+                    description = "Ranked, paginated matches",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResponse.class)))
     )
-    public Page<BookResponse> getBooks(
+    public Page<BookResponse> searchBooks(
+            @Parameter(description = "Search text", example = "tolk")
+            @RequestParam String q,
             @Parameter(description = "Pageable object", hidden = true)
             Pageable pageable) {
-        return bookService.getBooks(pageable);
+        return bookService.searchBooks(q, pageable);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream catalog changes",
+            description = "Server-Sent Events feed of created, updated and deleted books. Replays buffered changes after 'since' "
+                    + "(or Last-Event-ID), then streams new ones. Without either, only new changes are streamed. "
+                    + "A 'reset' event means the requested changes are no longer buffered, or the ID is unknown to this server "
+                    + "(e.g. after a restart), and the client must resync from GET /books.",
+            responses = @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream; each event's id is its feed sequence number",
+                    content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = BookChange.class)))
+    )
+    public SseEmitter streamChanges(
+            @Parameter(description = "Sequence number of the last change already seen", example = "1042")
+            @RequestParam(required = false) Long since,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = since != null ? since : lastEventId != null ? lastEventId : bookChangeFeed.lastSeq();
+        return bookChangeFeed.subscribe(from);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export the full catalog",
+            description = "Stream every book as NDJSON or CSV, ordered by ID, without pagination",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Catalog stream",
+                            content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+                    @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content)
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @Parameter(description = "Export format: ndjson or csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> bookExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
     }
 
     @GetMapping("/{id}")
     @Operation(
             summary = "Get book by ID",
-            description = "Retrieve a book by its ID",
+            description = "Retrieve a book by its ID. The ETag is derived from the book version.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Book found", content = @Content(schema = @Schema(implementation = BookResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Book unchanged since If-None-Match", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
             }
     )
-    public BookResponse getBookById(
+    public ResponseEntity<BookResponse> getBookById(
             @Parameter(description = "ID of the book to retrieve", example = "1")
-            @PathVariable int id) {
-        return bookService.getBookById(id);
+            @PathVariable int id,
+            @Parameter(hidden = true)
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = BookEtags.forBook(id, bookService.getBookVersion(id));
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        BookResponse book = bookService.getBookById(id);
+        return ResponseEntity.ok().eTag(BookEtags.forBook(book)).body(book);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(
+            summary = "Get selected fields of a book",
+            description = "Sparse fieldsets: only the listed fields are selected from the database and returned",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Partial book"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+            }
+    )
+    public Map<String, Object> getBookFieldsById(
+            @Parameter(description = "ID of the book to retrieve", example = "1")
+            @PathVariable int id,
+            @Parameter(description = "Comma-separated fields: id, name, author, publisher, yearReleased, version", example = "id,name")
+            @RequestParam String fields) {
+        return bookService.getBookFieldsById(id, fields);
     }
 
     @PostMapping
@@ -83,6 +307,63 @@ public class BookController {
         bookService.addBook(bookDto);
     }
 
+    @PostMapping("/async")
+    @Operation(
+            summary = "Add a new book asynchronously",
+            description = "Validate and enqueue a book for batched write-behind ingestion. Poll the returned Location for the outcome.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Book request body",
+                    content = @Content(schema = @Schema(implementation = BookRequest.class))),
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Book accepted for ingestion",
+                            content = @Content(schema = @Schema(implementation = IngestionStatus.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid book", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Ingestion queue full, see Retry-After", content = @Content)
+            }
+    )
+    public ResponseEntity<IngestionStatus> addBookAsync(
+            @RequestBody BookRequest bookDto) {
+        IngestionStatus status = bookIngestionQueue.submit(bookDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/books/ingestions/" + status.getTrackingId()))
+                .body(status);
+    }
+
+    @GetMapping("/ingestions/{trackingId}")
+    @Operation(
+            summary = "Get asynchronous submission status",
+            description = "Outcome of a book submitted to POST /books/async",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Submission status",
+                            content = @Content(schema = @Schema(implementation = IngestionStatus.class))),
+                    @ApiResponse(responseCode = "404", description = "Unknown or expired tracking ID", content = @Content)
+            }
+    )
+    public ResponseEntity<IngestionStatus> getIngestionStatus(
+            @Parameter(description = "Tracking ID returned by POST /books/async")
+            @PathVariable String trackingId) {
+        IngestionStatus status = bookIngestionQueue.status(trackingId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Bulk import books",
+            description = "Insert many books in JDBC batches, skipping duplicates and reporting the outcome per item",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Books to import",
+                    content = @Content(schema = @Schema(implementation = BookRequest.class))),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import report",
+                            content = @Content(schema = @Schema(implementation = BulkImportResult.class))),
+                    @ApiResponse(responseCode = "400", description = "Too many books in one request", content = @Content)
+            }
+    )
+    public BulkImportResult importBooks(
+            @RequestBody List<BookRequest> bookDtos) {
+        return bookImportService.importBooks(bookDtos);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update a book",
@@ -92,14 +373,17 @@ public class BookController {
                     content = @Content(schema = @Schema(implementation = BookRequest.class))),
             responses = {
                     @ApiResponse(responseCode = "200", description = "Book updated successfully"),
-                    @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+                    @ApiResponse(responseCode = "404", description = "Book not found", content = @Content),
+                    @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content)
             }
     )
     public void updateBook(
             @Parameter(description = "ID of the book to update", example = "1")
             @PathVariable int id,
-            @RequestBody BookRequest bookDto) {
-        bookService.updateBook(id, bookDto);
+            @RequestBody BookRequest bookDto,
+            @Parameter(description = "ETag from a previous GET, for lost-update protection", example = "\"1-0\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        bookService.updateBook(id, bookDto, BookEtags.expectedVersion(ifMatch, id));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,23 @@
+package com.example.demo.event;
+
+import com.example.demo.model.BookResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a book was created, updated or deleted. Listeners that keep derived state
+ * (search index, caches, change feed) use it to stay in sync with the database.
+ */
+@Data
+@AllArgsConstructor
+public class BookChangedEvent {
+
+    private BookChangeType type;
+
+    private int id;
+
+    /**
+     * State of the book after the change; {@code null} for {@link BookChangeType#DELETED}.
+     */
+    private BookResponse book;
+}
@@ -0,0 +1,9 @@
+package com.example.demo.exception;
+
+public class BadRequestException extends DomainException
+{
+    public BadRequestException(String message)
+    {
+        super(message);
+    }
+}
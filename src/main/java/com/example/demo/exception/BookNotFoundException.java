@@ -1,6 +1,6 @@
 package com.example.demo.exception;
 
-public class BookNotFoundException extends RuntimeException
+public class BookNotFoundException extends DomainException
 {
     public BookNotFoundException(String message)
     {
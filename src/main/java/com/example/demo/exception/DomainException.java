@@ -0,0 +1,14 @@
+package com.example.demo.exception;
+
+/**
+ * Base class for the expected, client-caused failures that the API maps to 4xx/503 responses.
+ * They are control flow rather than bugs, so no stack trace is captured and suppression is
+ * disabled; creating one costs little more than building its message.
+ */
+public abstract class DomainException extends RuntimeException
+{
+    protected DomainException(String message)
+    {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.demo.exception;
 
-public class DuplicateBookException extends RuntimeException
+public class DuplicateBookException extends DomainException
 {
     public DuplicateBookException(String msg)
     {
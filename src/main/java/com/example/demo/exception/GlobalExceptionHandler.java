@@ -1,8 +1,11 @@
 package com.example.demo.exception;
 
 import com.example.demo.exception.ErrorResponse;
+import com.example.demo.utils.LogRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,27 +13,66 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import com.example.demo.exception.BookNotFoundException;
 import com.example.demo.exception.DuplicateBookException;
 
+import java.time.Duration;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    // Misses and duplicates are client traffic, not faults: log a sample without stack traces.
+    private final LogRateLimiter notFoundLogLimiter = new LogRateLimiter(10, Duration.ofSeconds(1));
+
+    private final LogRateLimiter duplicateLogLimiter = new LogRateLimiter(10, Duration.ofSeconds(1));
+
     private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message) {
         return new ResponseEntity<>(new ErrorResponse(status.value(), message), status);
     }
 
     @ExceptionHandler(BookNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(BookNotFoundException ex) {
-        logger.error("BookNotFoundException occurred", ex);
+        long suppressed = notFoundLogLimiter.tryAcquire();
+        if (suppressed >= 0) {
+            logger.warn("BookNotFoundException occurred: {} ({} similar suppressed)", ex.getMessage(), suppressed);
+        }
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(DuplicateBookException.class)
     public ResponseEntity<ErrorResponse> handleDuplicate(DuplicateBookException ex) {
-        logger.warn("DuplicateBookException occurred", ex);
+        long suppressed = duplicateLogLimiter.tryAcquire();
+        if (suppressed >= 0) {
+            logger.warn("DuplicateBookException occurred: {} ({} similar suppressed)", ex.getMessage(), suppressed);
+        }
         return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        logger.warn("OptimisticLockingFailureException occurred: {}", ex.getMessage());
+        return buildResponse(HttpStatus.CONFLICT, "The book was modified concurrently. Please retry.");
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        logger.warn("PreconditionFailedException occurred: {}", ex.getMessage());
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleQueueFull(IngestionQueueFullException ex) {
+        logger.warn("IngestionQueueFullException occurred: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(BadRequestException ex) {
+        logger.warn("BadRequestException occurred: {}", ex.getMessage());
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
         logger.error("Unhandled exception occurred", ex);
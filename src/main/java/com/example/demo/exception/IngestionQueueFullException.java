@@ -0,0 +1,17 @@
+package com.example.demo.exception;
+
+public class IngestionQueueFullException extends DomainException
+{
+    private final long retryAfterSeconds;
+
+    public IngestionQueueFullException(String message, long retryAfterSeconds)
+    {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds()
+    {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.exception;
+
+public class PreconditionFailedException extends DomainException
+{
+    public PreconditionFailedException(String message)
+    {
+        super(message);
+    }
+}
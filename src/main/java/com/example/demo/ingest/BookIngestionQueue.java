@@ -0,0 +1,195 @@
+package com.example.demo.ingest;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.IngestionQueueFullException;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BulkImportItemResult;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.model.IngestionState;
+import com.example.demo.model.IngestionStatus;
+import com.example.demo.service.BookImportService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion for {@code POST /books/async}. Submissions are validated and put on a
+ * bounded queue; a single writer thread drains up to {@code max-batch} of them at a time and
+ * writes them in one batched transaction through {@link BookImportService}. When the queue is
+ * full, submissions are rejected so callers back off instead of piling up in memory.
+ */
+@Component
+public class BookIngestionQueue implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookIngestionQueue.class);
+
+    private final BookImportService bookImportService;
+
+    private final BlockingQueue<Submission> queue;
+
+    private final Cache<String, IngestionStatus> statuses;
+
+    private final int maxBatch;
+
+    private final long retryAfterSeconds;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public BookIngestionQueue(BookImportService bookImportService,
+                              @Value("${bookstore.ingest.queue-capacity:10000}") int capacity,
+                              @Value("${bookstore.ingest.max-batch:500}") int maxBatch,
+                              @Value("${bookstore.ingest.retry-after:PT1S}") Duration retryAfter,
+                              @Value("${bookstore.ingest.status-retention:PT1H}") Duration statusRetention) {
+        this.bookImportService = bookImportService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(capacity * 10L)
+                .expireAfterWrite(statusRetention)
+                .build();
+    }
+
+    public IngestionStatus submit(BookRequest request) {
+        if (request == null || isBlank(request.getName()) || isBlank(request.getAuthor())) {
+            throw new BadRequestException("Name and author are required.");
+        }
+        String trackingId = UUID.randomUUID().toString();
+        IngestionStatus pending = new IngestionStatus(trackingId, IngestionState.PENDING, null, null);
+        statuses.put(trackingId, pending);
+        if (!queue.offer(new Submission(trackingId, request))) {
+            statuses.invalidate(trackingId);
+            throw new IngestionQueueFullException("Ingestion queue is full, retry later.", retryAfterSeconds);
+        }
+        return pending;
+    }
+
+    /**
+     * Returns the status of a submission, or {@code null} if the tracking ID is unknown or expired.
+     */
+    public IngestionStatus status(String trackingId) {
+        return statuses.getIfPresent(trackingId);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "book-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        List<Submission> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        fail(abandoned, "Ingestion stopped before the book was written.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<Submission> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                fail(batch, "Ingestion stopped before the book was written.");
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction. If that fails, the submissions are written one by one
+     * so that a single bad submission only fails itself.
+     */
+    private void writeBatch(List<Submission> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                logger.error("Ingestion of 1 book failed", ex);
+                fail(batch, ex.getMessage());
+                return;
+            }
+            logger.warn("Ingestion batch of {} books failed, writing them one by one", batch.size(), ex);
+            for (Submission submission : batch) {
+                try {
+                    write(List.of(submission));
+                } catch (RuntimeException itemEx) {
+                    logger.error("Ingestion of book {} failed", submission.trackingId(), itemEx);
+                    fail(List.of(submission), itemEx.getMessage());
+                }
+            }
+        }
+    }
+
+    private void fail(List<Submission> submissions, String message) {
+        for (Submission submission : submissions) {
+            statuses.put(submission.trackingId(), new IngestionStatus(submission.trackingId(),
+                    IngestionState.FAILED, null, message));
+        }
+    }
+
+    private void write(List<Submission> batch) {
+        List<BookRequest> requests = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            requests.add(submission.request());
+        }
+        BulkImportResult result = bookImportService.importBooks(requests);
+        for (int i = 0; i < batch.size(); i++) {
+            String trackingId = batch.get(i).trackingId();
+            BulkImportItemResult item = result.getItems().get(i);
+            IngestionState state = switch (item.getStatus()) {
+                case CREATED -> IngestionState.CREATED;
+                case DUPLICATE -> IngestionState.DUPLICATE;
+                case INVALID -> IngestionState.INVALID;
+            };
+            statuses.put(trackingId, new IngestionStatus(trackingId, state, item.getId(), item.getMessage()));
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Submission(String trackingId, BookRequest request) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.metrics;
+
+import com.example.demo.exception.BookNotFoundException;
+import com.example.demo.exception.DuplicateBookException;
+import com.example.demo.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public service method as {@code bookstore.service}, tagged with the
+ * service class, the operation and its outcome (success, not_found, duplicate, conflict, error),
+ * with a percentile histogram so p95/p99 can be computed at scrape time.
+ * Version conflicts (a stale If-Match or an optimistic-lock failure) are also counted as
+ * {@code bookstore.optimistic_lock.conflicts}.
+ */
+@Aspect
+@Component
+public class BookServiceMetricsAspect {
+
+    static final String TIMER_NAME = "bookstore.service";
+
+    static final String CONFLICTS_NAME = "bookstore.optimistic_lock.conflicts";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter conflicts;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public BookServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.conflicts = Counter.builder(CONFLICTS_NAME)
+                .description("Book writes rejected because the stored version had changed")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public * com.example.demo.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (BookNotFoundException ex) {
+            outcome = "not_found";
+            throw ex;
+        } catch (DuplicateBookException ex) {
+            outcome = "duplicate";
+            throw ex;
+        } catch (PreconditionFailedException | OptimisticLockingFailureException ex) {
+            outcome = "conflict";
+            conflicts.increment();
+            throw ex;
+        } catch (Throwable ex) {
+            outcome = "error";
+            throw ex;
+        } finally {
+            TimerKey key = new TimerKey(joinPoint.getSignature().getDeclaringType(),
+                    joinPoint.getSignature().getName(), outcome);
+            timers.computeIfAbsent(key, this::register).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Builds a timer once per service, operation and outcome; afterwards the hot path is a map lookup.
+     */
+    private Timer register(TimerKey key) {
+        return Timer.builder(TIMER_NAME)
+                .description("Latency of BookStore service operations")
+                .tag("service", key.service().getSimpleName())
+                .tag("operation", key.operation())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record TimerKey(Class<?> service, String operation, String outcome) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event while virtual threads are enabled, so that
+ * carriers pinned by synchronized code (the H2 driver and parts of Hibernate hold monitors around
+ * JDBC calls) show up as the {@code bookstore.virtual.pinned} counter and a WARN log with the
+ * top frames. Does nothing on runtimes older than Java 21.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 5;
+
+    private final Counter pinnedCounter;
+
+    private final Duration threshold;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${bookstore.virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.pinnedCounter = Counter.builder("bookstore.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; "
+                    + "requests stay on platform threads and pinning is not monitored", Runtime.version().feature());
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        logger.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        if (logger.isWarnEnabled()) {
+            StringBuilder frames = new StringBuilder();
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            if (stackTrace != null) {
+                stackTrace.getFrames().stream().limit(LOGGED_FRAMES).map(RecordedFrame::getMethod)
+                        .forEach(method -> frames.append("\n\tat ")
+                                .append(method.getType().getName()).append('.').append(method.getName()));
+            }
+            logger.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+}
@@ -10,6 +10,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(name = "book", indexes = {
+        @Index(name = "ux_book_name_author", columnList = "name, author", unique = true),
+        @Index(name = "ix_book_author", columnList = "author"),
+        @Index(name = "ix_book_publisher", columnList = "publisher"),
+        @Index(name = "ix_book_year_released", columnList = "year_released")
+})
 public class Book {
 
     @Id
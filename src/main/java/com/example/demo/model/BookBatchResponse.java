@@ -0,0 +1,18 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Books resolved by a batch lookup")
+@Data
+@AllArgsConstructor
+public class BookBatchResponse {
+
+    @Schema(description = "Books found, in the order their IDs were requested")
+    private List<BookResponse> books;
+    @Schema(description = "Requested IDs that do not exist", example = "[404]")
+    private List<Integer> missingIds;
+}
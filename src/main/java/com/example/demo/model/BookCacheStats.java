@@ -0,0 +1,22 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Schema(description = "Book cache statistics")
+@Data
+@AllArgsConstructor
+public class BookCacheStats {
+
+    @Schema(description = "Approximate number of cached books", example = "42")
+    private long size;
+    @Schema(description = "Number of lookups served from the cache", example = "900")
+    private long hits;
+    @Schema(description = "Number of lookups that went to the database", example = "100")
+    private long misses;
+    @Schema(description = "Number of entries evicted by size or TTL", example = "3")
+    private long evictions;
+    @Schema(description = "Hit ratio between 0 and 1", example = "0.9")
+    private double hitRate;
+}
@@ -0,0 +1,27 @@
+package com.example.demo.model;
+
+import com.example.demo.event.BookChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Schema(description = "One entry of the catalog change feed")
+@Data
+@AllArgsConstructor
+public class BookChange {
+
+    @Schema(description = "Position in the feed; pass it as 'since' (or Last-Event-ID) to resume after this change", example = "1042")
+    private long seq;
+    @Schema(description = "Kind of change", example = "UPDATED")
+    private BookChangeType type;
+    @Schema(description = "Book ID", example = "1")
+    private int id;
+    @Schema(description = "Book version after the change; null for deletions", example = "3")
+    private Integer version;
+    @Schema(description = "Book state after the change; null for deletions")
+    private BookResponse book;
+    @Schema(description = "When the change was recorded")
+    private Instant timestamp;
+}
@@ -0,0 +1,27 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Optional filters for listing books; all given filters must match")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookFilter {
+
+    @Schema(description = "Exact author name", example = "George Orwell")
+    private String author;
+    @Schema(description = "Exact publisher name", example = "Secker & Warburg")
+    private String publisher;
+    @Schema(description = "Earliest release year (inclusive)", example = "1900")
+    private Integer yearFrom;
+    @Schema(description = "Latest release year (inclusive)", example = "1999")
+    private Integer yearTo;
+
+    @Schema(hidden = true)
+    public boolean isEmpty() {
+        return author == null && publisher == null && yearFrom == null && yearTo == null;
+    }
+}
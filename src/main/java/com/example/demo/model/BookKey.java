@@ -0,0 +1,11 @@
+package com.example.demo.model;
+
+/**
+ * Projection of the (name, author) pair that identifies a book as a duplicate.
+ */
+public interface BookKey {
+
+    String getName();
+
+    String getAuthor();
+}
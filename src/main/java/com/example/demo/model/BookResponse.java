@@ -1,75 +1,71 @@
 package com.example.demo.model;
 
 
+import com.example.demo.utils.BookResponseSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
-import lombok.Data;
-
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Immutable book view returned by the API. Instances are shared between the book cache,
+ * the search index and the change feed, so they must never be modified after creation.
+ * Serialized by {@link BookResponseSerializer}, which writes the fields straight to the
+ * generator instead of going through bean introspection.
+ */
 @Schema(description = "Book response object")
-@Data
-public class BookResponse {
+@JsonSerialize(using = BookResponseSerializer.class)
+@EqualsAndHashCode
+@ToString
+public final class BookResponse {
 
     @Schema(description = "Unique book ID", example = "1")
-    private int id;
+    private final int id;
     @Schema(description = "Book name", example = "1984")
-    private String name;
+    private final String name;
     @Schema(description = "Author", example = "George Orwell")
-    private String author;
+    private final String author;
     @Schema(description = "Publisher", example = "Secker & Warburg")
-    private String publisher;
+    private final String publisher;
     @Schema(description = "Year Released", example = "1949")
-    private int yearReleased;
+    private final int yearReleased;
+    @Schema(description = "Version, incremented on every update", example = "0")
+    private final Integer version;
 
-    public int getId() {
-        return id;
+    public BookResponse(int id, String name, String author, String publisher, int yearReleased, Integer version) {
+        this.id = id;
+        this.name = name;
+        this.author = author;
+        this.publisher = publisher;
+        this.yearReleased = yearReleased;
+        this.version = version;
     }
 
-    public void setId(int id) {
-        this.id = id;
+    public BookResponse(int id, String name, String author, String publisher, int yearReleased) {
+        this(id, name, author, publisher, yearReleased, null);
     }
 
-    public String getName() {
-        return name;
+    public int getId() {
+        return id;
     }
 
-    public void setName(String name) {
-        this.name = name;
+    public String getName() {
+        return name;
     }
 
     public String getAuthor() {
         return author;
     }
 
-    public void setAuthor(String author) {
-        this.author = author;
-    }
-
     public String getPublisher() {
         return publisher;
     }
 
-    public void setPublisher(String publisher) {
-        this.publisher = publisher;
-    }
-
     public int getYearReleased() {
         return yearReleased;
     }
 
-    public void setYearReleased(int yearReleased) {
-        this.yearReleased = yearReleased;
-    }
-
-
-
-    public BookResponse(int id, String name, String author, String publisher, int yearReleased) {
-        this.id = id;
-        this.name = name;
-        this.author = author;
-        this.publisher = publisher;
-        this.yearReleased = yearReleased;
-    }
-
-
-    public BookResponse() {
+    public Integer getVersion() {
+        return version;
     }
 }
@@ -0,0 +1,20 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Schema(description = "Outcome of a single item of a bulk import")
+@Data
+@AllArgsConstructor
+public class BulkImportItemResult {
+
+    @Schema(description = "Position of the item in the request payload", example = "0")
+    private int index;
+    @Schema(description = "Outcome of the item", example = "CREATED")
+    private BulkImportStatus status;
+    @Schema(description = "ID of the created book, null unless CREATED", example = "51")
+    private Integer id;
+    @Schema(description = "Reason the item was skipped, null when CREATED", example = "Book with same name and author already exists.")
+    private String message;
+}
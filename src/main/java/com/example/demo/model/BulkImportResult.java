@@ -0,0 +1,26 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Report of a bulk import")
+@Data
+@AllArgsConstructor
+public class BulkImportResult {
+
+    @Schema(description = "Number of books inserted", example = "998")
+    private int created;
+    @Schema(description = "Number of items skipped as duplicates", example = "2")
+    private int duplicates;
+    @Schema(description = "Number of items rejected as invalid", example = "0")
+    private int invalid;
+    @Schema(description = "Wall-clock time spent on the import in milliseconds", example = "120")
+    private long elapsedMillis;
+    @Schema(description = "Inserted rows per second", example = "8316.7")
+    private double rowsPerSecond;
+    @Schema(description = "Per-item outcome in request order")
+    private List<BulkImportItemResult> items;
+}
@@ -0,0 +1,7 @@
+package com.example.demo.model;
+
+public enum BulkImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Cursor (keyset) paginated slice of results")
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    @Schema(description = "Items of this slice, ordered by ID")
+    private List<T> content;
+    @Schema(description = "Requested slice size", example = "20")
+    private int size;
+    @Schema(description = "Opaque cursor to pass as 'after' for the next slice; null on the last slice", example = "aWQ6MjA")
+    private String nextCursor;
+}
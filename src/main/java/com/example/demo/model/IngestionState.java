@@ -0,0 +1,9 @@
+package com.example.demo.model;
+
+public enum IngestionState {
+    PENDING,
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
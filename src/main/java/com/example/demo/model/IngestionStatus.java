@@ -0,0 +1,20 @@
+package com.example.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Schema(description = "Status of an asynchronous book submission")
+@Data
+@AllArgsConstructor
+public class IngestionStatus {
+
+    @Schema(description = "Tracking ID returned when the book was accepted", example = "6f1c2a9e-3b7d-4a51-9d1e-2f0c8b7a4e11")
+    private String trackingId;
+    @Schema(description = "Current state of the submission", example = "CREATED")
+    private IngestionState state;
+    @Schema(description = "ID of the created book, null unless CREATED", example = "51")
+    private Integer bookId;
+    @Schema(description = "Reason the submission was not created", example = "Book with same name and author already exists.")
+    private String message;
+}
@@ -0,0 +1,108 @@
+package com.example.demo.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global in-flight request limit that adapts with AIMD (additive increase, multiplicative
+ * decrease): a request finishing within {@code target-latency} while the limit is being used
+ * raises the limit by one, a slower one cuts it by 10%. When the JDBC pool saturates, latency
+ * rises and the limit shrinks, so excess requests are shed up front instead of queueing.
+ * <p>
+ * Only requests that started after the last cut can cut the limit again. A burst of slow
+ * requests that were all in flight under the old limit therefore costs 10% once rather than
+ * 10% each, and cuts are at least {@code target-latency} apart.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final AtomicInteger limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long targetLatencyNanos;
+
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(NEVER);
+
+    public AdaptiveConcurrencyLimiter(@Value("${bookstore.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${bookstore.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${bookstore.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${bookstore.concurrency.target-latency:250ms}") Duration targetLatency) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.targetLatencyNanos = targetLatency.toNanos();
+    }
+
+    /**
+     * Reserves a slot; returns {@code false} if the current limit is reached. Every successful
+     * call must be paired with {@link #release(long)}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees a slot without feeding the request's latency into the limit, for endpoints whose
+     * duration depends on the payload rather than on how loaded the server is.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long latencyNanos) {
+        release(latencyNanos, System.nanoTime());
+    }
+
+    public void release(long latencyNanos, long nowNanos) {
+        int used = inFlight.getAndDecrement();
+        if (latencyNanos > targetLatencyNanos) {
+            long last = lastDecreaseNanos.get();
+            long startedNanos = nowNanos - latencyNanos;
+            if ((last == NEVER || startedNanos - last >= 0) && lastDecreaseNanos.compareAndSet(last, nowNanos)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * 0.9)));
+            }
+        } else if (used * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bookstore.concurrency.limit", limit, AtomicInteger::get)
+                .description("Current adaptive in-flight request limit")
+                .register(registry);
+        Gauge.builder("bookstore.concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, implemented as GCRA (generic cell rate algorithm): each bucket is a
+ * single {@link AtomicLong} holding the theoretical arrival time of the next request, updated
+ * with compare-and-set, so admitting a request never takes a lock. Buckets live in a bounded
+ * Caffeine map and are dropped after {@code idle-expiry} without requests.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    public ClientRateLimiter(@Value("${bookstore.ratelimit.requests-per-second:50}") double requestsPerSecond,
+                             @Value("${bookstore.ratelimit.burst:100}") int burst,
+                             @Value("${bookstore.ratelimit.max-clients:100000}") long maxClients,
+                             @Value("${bookstore.ratelimit.idle-expiry:10m}") Duration idleExpiry) {
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    /**
+     * Takes one token from {@code client}'s bucket. Returns 0 if the request is admitted,
+     * otherwise the number of nanoseconds until a token becomes available.
+     */
+    public long tryAcquire(String client) {
+        return tryAcquire(client, System.nanoTime());
+    }
+
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong theoreticalArrival = buckets.get(client, key -> new AtomicLong(nowNanos));
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long allowedAt = base - burstToleranceNanos;
+            if (allowedAt > nowNanos) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public long trackedClients() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for {@code /books/**}, ahead of the page cache and the controller.
+ * Requests are first charged to the caller's token bucket and answered with 429 when it is
+ * empty, then admitted through the adaptive concurrency limit and answered with 503 when it is
+ * full. Rejections are counted as {@code bookstore.ratelimit.rejected}, tagged with the reason.
+ * <p>
+ * Buckets are keyed on the remote address only. Client-supplied headers such as {@code X-API-Key}
+ * are not validated anywhere, so keying on them would let a caller get a fresh bucket per request.
+ * Behind a proxy, {@code server.forward-headers-strategy=native} makes the container resolve the
+ * remote address from {@code X-Forwarded-For}, trusting only the proxies it is configured for.
+ * <p>
+ * Bulk import, export and the change feed take a concurrency slot like any other request, but
+ * their latency scales with the payload, so it is kept out of the adaptive limit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final Set<String> UNSAMPLED_PATHS = Set.of("/books/bulk", "/books/export", "/books/changes");
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter rateRejections;
+
+    private final Counter concurrencyRejections;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.rateRejections = rejectionCounter(meterRegistry, "rate");
+        this.concurrencyRejections = rejectionCounter(meterRegistry, "concurrency");
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("bookstore.ratelimit.rejected")
+                .description("Requests rejected before reaching the BookStore API")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !(path.equals("/books") || path.startsWith("/books/"));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        long waitNanos = rateLimiter.tryAcquire(client);
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            logger.debug("Rate limit exceeded for {}", client);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded, slow down.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is at capacity, retry later.", 1);
+            return;
+        }
+        boolean sampled = !UNSAMPLED_PATHS.contains(path(request));
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (sampled) {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            } else {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), message));
+    }
+}
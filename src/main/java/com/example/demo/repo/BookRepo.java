@@ -1,12 +1,65 @@
 package com.example.demo.repo;
 
 import com.example.demo.model.Book;
+import com.example.demo.model.BookKey;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * All query methods, including derived and custom ones, run in read-only transactions:
+ * Hibernate loads entities without dirty-checking snapshots and with flush mode MANUAL.
+ * Inherited write methods keep the read-write transactions declared by SimpleJpaRepository;
+ * the modifying queries below declare their own.
+ */
 @Repository
-public interface BookRepo extends JpaRepository<Book, Integer> {
+@Transactional(readOnly = true)
+public interface BookRepo extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book>, BookRepoCustom {
 
     boolean existsByNameAndAuthor(String name, String author);
 
+    List<Book> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    @Query("select b.version from Book b where b.id = :id")
+    Optional<Integer> findVersionById(int id);
+
+    @Query("select b.name as name, b.author as author from Book b where b.name in :names")
+    List<BookKey> findKeysByNameIn(Collection<String> names);
+
+    /**
+     * Implemented in {@link BookRepoCustomImpl}; redeclared here so it runs read-write.
+     */
+    @Override
+    @Transactional
+    Optional<Integer> updateById(int id, String name, String author, String publisher, int yearReleased);
+
+    /**
+     * Overwrites a book and bumps its version in one UPDATE, but only while the stored version
+     * still equals {@code version}; the new version is then {@code version + 1}.
+     * Returns the number of updated rows.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Book b set b.name = :name, b.author = :author, b.publisher = :publisher, "
+            + "b.yearReleased = :yearReleased, b.version = b.version + 1 "
+            + "where b.id = :id and b.version = :version")
+    int updateByIdAndVersion(int id, int version, String name, String author, String publisher, int yearReleased);
+
+    /**
+     * Deletes a book in one DELETE, without the SELECT that {@code deleteById} issues.
+     * Returns the number of deleted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Book b where b.id = :id")
+    int deleteBookById(int id);
+
 }
@@ -0,0 +1,30 @@
+package com.example.demo.repo;
+
+import com.example.demo.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Projection queries that select only the requested {@code Book} attributes.
+ * Rows come back as attribute-name to value maps and never become managed entities.
+ */
+public interface BookRepoCustom {
+
+    /**
+     * Pages through the books matching {@code spec} (all books if {@code null}).
+     */
+    Page<Map<String, Object>> findAllFields(List<String> fields, Specification<Book> spec, Pageable pageable);
+
+    Optional<Map<String, Object>> findFieldsById(int id, List<String> fields);
+
+    /**
+     * Overwrites a book and bumps its version without loading it first, and returns the version
+     * it wrote (empty if the book does not exist).
+     */
+    Optional<Integer> updateById(int id, String name, String author, String publisher, int yearReleased);
+}
@@ -0,0 +1,150 @@
+package com.example.demo.repo;
+
+import com.example.demo.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class BookRepoCustomImpl implements BookRepoCustom {
+
+    private static final String UPDATE_SQL = "update book set name = ?1, author = ?2, publisher = ?3, "
+            + "year_released = ?4, version = version + 1 where id = ?5";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String updateReturningVersionSql;
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Specification<Book> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        query.multiselect(selections(root, fields));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = toMaps(typedQuery.getResultList(), fields);
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Book> countRoot = countQuery.from(Book.class);
+        countQuery.select(cb.count(countRoot));
+        Predicate countPredicate = spec == null ? null : spec.toPredicate(countRoot, countQuery, cb);
+        if (countPredicate != null) {
+            countQuery.where(countPredicate);
+        }
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> entityManager.createQuery(countQuery).getSingleResult());
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(int id, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        query.multiselect(selections(root, fields));
+        query.where(cb.equal(root.get("id"), id));
+        List<Map<String, Object>> rows = toMaps(entityManager.createQuery(query).getResultList(), fields);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Reads the new version back from the UPDATE itself where the database can: through a data
+     * change delta table on H2, with {@code RETURNING} on PostgreSQL. Other databases get the
+     * portable form, a JPQL UPDATE followed by a version lookup in the same transaction.
+     */
+    @Override
+    public Optional<Integer> updateById(int id, String name, String author, String publisher, int yearReleased) {
+        String sql = updateReturningVersionSql();
+        if (sql.isEmpty()) {
+            int updated = entityManager.createQuery("update Book b set b.name = :name, b.author = :author, "
+                            + "b.publisher = :publisher, b.yearReleased = :yearReleased, b.version = b.version + 1 "
+                            + "where b.id = :id")
+                    .setParameter("name", name)
+                    .setParameter("author", author)
+                    .setParameter("publisher", publisher)
+                    .setParameter("yearReleased", yearReleased)
+                    .setParameter("id", id)
+                    .executeUpdate();
+            if (updated == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(entityManager.createQuery("select b.version from Book b where b.id = :id", Integer.class)
+                    .setParameter("id", id)
+                    .getSingleResult());
+        }
+        List<?> versions = entityManager.createNativeQuery(sql)
+                .setParameter(1, name)
+                .setParameter(2, author)
+                .setParameter(3, publisher)
+                .setParameter(4, yearReleased)
+                .setParameter(5, id)
+                .getResultList();
+        return versions.stream().findFirst().map(version -> ((Number) version).intValue());
+    }
+
+    private String updateReturningVersionSql() {
+        String sql = updateReturningVersionSql;
+        if (sql == null) {
+            Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect();
+            if (dialect instanceof H2Dialect) {
+                sql = "select version from final table (" + UPDATE_SQL + ")";
+            } else if (dialect instanceof PostgreSQLDialect) {
+                sql = UPDATE_SQL + " returning version";
+            } else {
+                sql = "";
+            }
+            updateReturningVersionSql = sql;
+        }
+        return sql;
+    }
+
+    private static List<Selection<?>> selections(Root<Book> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.repo;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFilter;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates a {@link BookFilter} into equality and range predicates on the indexed
+ * author, publisher and year_released columns.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(BookFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getAuthor() != null) {
+                predicates.add(cb.equal(root.get("author"), filter.getAuthor()));
+            }
+            if (filter.getPublisher() != null) {
+                predicates.add(cb.equal(root.get("publisher"), filter.getPublisher()));
+            }
+            if (filter.getYearFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("yearReleased"), filter.getYearFrom()));
+            }
+            if (filter.getYearTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("yearReleased"), filter.getYearTo()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
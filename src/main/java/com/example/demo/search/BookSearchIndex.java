@@ -0,0 +1,207 @@
+package com.example.demo.search;
+
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.model.Book;
+import com.example.demo.model.BookResponse;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.utils.BookMappingHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over book name, author and publisher.
+ * Terms are case- and accent-folded; every query term also matches as a prefix, so partial
+ * input works for typeahead. All query terms must match. Results are ranked by field weight
+ * (name > author > publisher), with exact term matches scoring above prefix matches.
+ * Built at startup and kept current from {@link BookChangedEvent}s.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int PUBLISHER_WEIGHT = 1;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** term -> (book id -> field weight of the term in that book) */
+    private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+
+    private final Map<Integer, BookResponse> books = new HashMap<>();
+
+    private final Map<Integer, Set<String>> termsByBook = new HashMap<>();
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            books.clear();
+            termsByBook.clear();
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+            Page<Book> page;
+            do {
+                page = bookRepository.findAll(pageable);
+                page.forEach(book -> add(BookMappingHelper.convertToDto(book)));
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Search index built with {} books in {} ms", books.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getId());
+            if (event.getType() != BookChangeType.DELETED) {
+                add(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<BookResponse> search(String query, Pageable pageable) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Map<Integer, Integer> termScores = score(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return new PageImpl<>(Collections.emptyList(), pageable, 0);
+                }
+            }
+            List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ranked.size()) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), ranked.size()) : ranked.size();
+            List<BookResponse> content = new ArrayList<>(to - from);
+            for (Map.Entry<Integer, Integer> entry : ranked.subList(from, to)) {
+                content.add(books.get(entry.getKey()));
+            }
+            return new PageImpl<>(content, pageable, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores of all books containing a term that starts with {@code prefix}. An exact term
+     * match counts twice its field weight, a longer term once.
+     */
+    private Map<Integer, Integer> score(String prefix) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Integer>> entry
+                : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            int factor = entry.getKey().length() == prefix.length() ? 2 : 1;
+            for (Map.Entry<Integer, Integer> posting : entry.getValue().entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void add(BookResponse book) {
+        Map<String, Integer> weights = new HashMap<>();
+        indexField(weights, book.getName(), NAME_WEIGHT);
+        indexField(weights, book.getAuthor(), AUTHOR_WEIGHT);
+        indexField(weights, book.getPublisher(), PUBLISHER_WEIGHT);
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(book.getId(), entry.getValue());
+        }
+        books.put(book.getId(), book);
+        termsByBook.put(book.getId(), weights.keySet());
+    }
+
+    private void remove(int id) {
+        Set<String> terms = termsByBook.remove(id);
+        books.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Integer, Integer> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void indexField(Map<String, Integer> weights, String value, int weight) {
+        for (String term : tokenize(value)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
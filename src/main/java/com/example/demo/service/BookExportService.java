@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Streams the whole catalog from a forward-only JDBC cursor straight to an output stream.
+ * Each row is written as soon as it is read, so heap use does not grow with the catalog.
+ */
+@Service
+public class BookExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT id, name, author, publisher, year_released FROM book ORDER BY id";
+
+    private static final String CSV_HEADER = "id,name,author,publisher,yearReleased\n";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${bookstore.export.fetch-size:500}")
+    int fetchSize = 500;
+
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case NDJSON -> exportNdjson(out);
+            case CSV -> exportCsv(out);
+        }
+    }
+
+    private void exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            streamRows(rs -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getInt(1));
+                    generator.writeStringField("name", rs.getString(2));
+                    generator.writeStringField("author", rs.getString(3));
+                    generator.writeStringField("publisher", rs.getString(4));
+                    generator.writeNumberField("yearReleased", rs.getInt(5));
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    private void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        streamRows(rs -> {
+            try {
+                writer.write(Integer.toString(rs.getInt(1)));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(2));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(3));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(4));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt(5)));
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+    }
+
+    private void streamRows(RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
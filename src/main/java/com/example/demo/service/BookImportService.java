@@ -0,0 +1,226 @@
+package com.example.demo.service;
+
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.BookKey;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BookResponse;
+import com.example.demo.model.BulkImportItemResult;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.model.BulkImportStatus;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.utils.SqlStates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of books. Duplicates are detected with one set-based (name, author) lookup
+ * plus in-memory dedup of the payload, and new rows are written with JDBC batch inserts,
+ * since the IDENTITY id on {@code Book} prevents Hibernate from batching. Each batch runs under
+ * a JDBC savepoint on the import's connection, so a book added concurrently after the duplicate
+ * check only turns its own row into a duplicate instead of failing the whole import.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO book (name, author, publisher, year_released, version) VALUES (?, ?, ?, ?, 0)";
+
+    private static final int NAME_LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Value("${bookstore.import.batch-size:500}")
+    int batchSize = 500;
+
+    @Value("${bookstore.import.max-items:10000}")
+    int maxItems = 10000;
+
+    @Transactional
+    public BulkImportResult importBooks(List<BookRequest> requests) {
+        if (requests.size() > maxItems) {
+            throw new BadRequestException("A bulk import accepts at most " + maxItems + " books.");
+        }
+        long start = System.nanoTime();
+        BulkImportItemResult[] items = new BulkImportItemResult[requests.size()];
+        Set<String> existing = findExistingKeys(requests);
+        Set<String> seen = new HashSet<>();
+        List<Integer> toInsert = new ArrayList<>();
+        int created = 0;
+        int duplicates = 0;
+        int invalid = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            BookRequest request = requests.get(i);
+            if (request == null || isBlank(request.getName()) || isBlank(request.getAuthor())) {
+                items[i] = new BulkImportItemResult(i, BulkImportStatus.INVALID, null, "Name and author are required.");
+                invalid++;
+                continue;
+            }
+            String key = key(request.getName(), request.getAuthor());
+            if (existing.contains(key) || !seen.add(key)) {
+                items[i] = new BulkImportItemResult(i, BulkImportStatus.DUPLICATE, null,
+                        "Book with same name and author already exists.");
+                duplicates++;
+                continue;
+            }
+            toInsert.add(i);
+        }
+
+        for (int from = 0; from < toInsert.size(); from += batchSize) {
+            List<Integer> batch = toInsert.subList(from, Math.min(from + batchSize, toInsert.size()));
+            List<Integer> ids = insertBatch(requests, batch);
+            for (int j = 0; j < batch.size(); j++) {
+                int index = batch.get(j);
+                Integer id = ids.get(j);
+                if (id == null) {
+                    items[index] = new BulkImportItemResult(index, BulkImportStatus.DUPLICATE, null,
+                            "Book with same name and author was added concurrently.");
+                    duplicates++;
+                    continue;
+                }
+                items[index] = new BulkImportItemResult(index, BulkImportStatus.CREATED, id, null);
+                created++;
+                publishCreated(requests.get(index), id);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : created * 1_000_000_000.0 / elapsedNanos;
+        logger.info("Bulk import: {} created, {} duplicates, {} invalid in {} ms ({} rows/s)",
+                created, duplicates, invalid, elapsedMillis, Math.round(rowsPerSecond));
+        return new BulkImportResult(created, duplicates, invalid, elapsedMillis, rowsPerSecond,
+                Arrays.asList(items));
+    }
+
+    private Set<String> findExistingKeys(List<BookRequest> requests) {
+        List<String> names = requests.stream()
+                .filter(r -> r != null && !isBlank(r.getName()))
+                .map(BookRequest::getName)
+                .distinct()
+                .toList();
+        Set<String> keys = new HashSet<>();
+        for (int from = 0; from < names.size(); from += NAME_LOOKUP_CHUNK) {
+            List<String> chunk = names.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, names.size()));
+            for (BookKey existing : bookRepository.findKeysByNameIn(chunk)) {
+                keys.add(key(existing.getName(), existing.getAuthor()));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Inserts one batch under a JDBC savepoint and returns the generated ids in batch order. If a
+     * row violates the unique (name, author) index, the batch is rolled back to the savepoint and
+     * retried row by row; rows that still conflict get a {@code null} id.
+     */
+    private List<Integer> insertBatch(List<BookRequest> requests, List<Integer> batch) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) con -> {
+            List<Integer> ids = insertUnderSavepoint(con, requests, batch);
+            if (ids != null) {
+                return ids;
+            }
+            logger.info("Batch of {} books hit a concurrently added duplicate; inserting row by row", batch.size());
+            List<Integer> rowIds = new ArrayList<>(batch.size());
+            for (Integer index : batch) {
+                List<Integer> id = insertUnderSavepoint(con, requests, List.of(index));
+                rowIds.add(id == null ? null : id.get(0));
+            }
+            return rowIds;
+        });
+    }
+
+    /**
+     * Returns {@code null} if the rows hit the unique index, after rolling back whatever part of
+     * them was written.
+     */
+    private List<Integer> insertUnderSavepoint(Connection con, List<BookRequest> requests, List<Integer> rows)
+            throws SQLException {
+        Savepoint savepoint = con.setSavepoint();
+        try {
+            List<Integer> ids = batchInsert(requests, rows);
+            con.releaseSavepoint(savepoint);
+            return ids;
+        } catch (DataIntegrityViolationException ex) {
+            if (!SqlStates.isUniqueViolation(ex)) {
+                throw ex;
+            }
+            con.rollback(savepoint);
+            return null;
+        }
+    }
+
+    private List<Integer> batchInsert(List<BookRequest> requests, List<Integer> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        BookRequest request = requests.get(batch.get(i));
+                        ps.setString(1, request.getName());
+                        ps.setString(2, request.getAuthor());
+                        ps.setString(3, request.getPublisher());
+                        ps.setInt(4, request.getYearReleased());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+        List<Integer> ids = new ArrayList<>(batch.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).intValue());
+        }
+        return ids;
+    }
+
+    private void publishCreated(BookRequest request, int id) {
+        BookResponse book = new BookResponse(id, request.getName(), request.getAuthor(),
+                request.getPublisher(), request.getYearReleased(), 0);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangeType.CREATED, id, book));
+    }
+
+    private static String key(String name, String author) {
+        return name + '\u0000' + author;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,17 +1,43 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.BookCache;
+import com.example.demo.cache.SingleFlight;
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.BookNotFoundException;
 import com.example.demo.exception.DuplicateBookException;
+import com.example.demo.exception.PreconditionFailedException;
 import com.example.demo.model.Book;
+import com.example.demo.model.BookBatchResponse;
+import com.example.demo.model.BookFilter;
 import com.example.demo.model.BookRequest;
 import com.example.demo.model.BookResponse;
+import com.example.demo.model.CursorPage;
 import com.example.demo.repo.BookRepo;
+import com.example.demo.repo.BookSpecifications;
+import com.example.demo.search.BookSearchIndex;
+import com.example.demo.utils.BookCursorCodec;
+import com.example.demo.utils.BookFields;
 import com.example.demo.utils.BookMappingHelper;
+import com.example.demo.utils.SqlStates;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
 import static com.example.demo.utils.BookMappingHelper.convertToDto;
 import static com.example.demo.utils.BookMappingHelper.convertToEntity;
 
@@ -19,46 +45,238 @@ import static com.example.demo.utils.BookMappingHelper.convertToEntity;
 @Service
 public class BookService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    private static final int MAX_BATCH_IDS = 1000;
+
+    private static final int BATCH_QUERY_CHUNK = 500;
+
+    private final SingleFlight<PageKey, Page<BookResponse>> pageFlights = new SingleFlight<>();
 
     @Autowired
     BookRepo bookRepository;
 
+    @Autowired
+    BookCache bookCache;
+
+    @Autowired
+    BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Concurrent requests for the same page and sort share one query and its result.
+     */
     public Page<BookResponse> getBooks(Pageable pageable) {
-        return bookRepository.findAll(pageable)
-                .map(BookMappingHelper::convertToDto);
+        return pageFlights.execute(new PageKey(null, pageable), () -> bookRepository.findAll(pageable)
+                .map(BookMappingHelper::convertToDto));
 
     }
 
+    /**
+     * Lists books matching {@code filter}; the filters are pushed down as index-backed
+     * equality and range predicates. Without filters this is {@link #getBooks(Pageable)}.
+     */
+    public Page<BookResponse> getBooks(BookFilter filter, Pageable pageable) {
+        if (filter == null || filter.isEmpty()) {
+            return getBooks(pageable);
+        }
+        checkYearRange(filter);
+        return pageFlights.execute(new PageKey(filter, pageable), () ->
+                bookRepository.findAll(BookSpecifications.matching(filter), pageable)
+                        .map(BookMappingHelper::convertToDto));
+    }
+
+    /**
+     * Sparse fieldset listing: only the requested columns are selected and returned, with the
+     * same filters as {@link #getBooks(BookFilter, Pageable)}.
+     */
+    public Page<Map<String, Object>> getBookFields(String fields, BookFilter filter, Pageable pageable) {
+        List<String> parsed = BookFields.parse(fields);
+        BookFields.checkSort(pageable.getSort());
+        if (filter == null || filter.isEmpty()) {
+            return bookRepository.findAllFields(parsed, null, pageable);
+        }
+        checkYearRange(filter);
+        return bookRepository.findAllFields(parsed, BookSpecifications.matching(filter), pageable);
+    }
+
+    private static void checkYearRange(BookFilter filter) {
+        if (filter.getYearFrom() != null && filter.getYearTo() != null && filter.getYearFrom() > filter.getYearTo()) {
+            throw new BadRequestException("yearFrom must not be after yearTo");
+        }
+    }
+
+    public Map<String, Object> getBookFieldsById(int id, String fields) {
+        return bookRepository.findFieldsById(id, BookFields.parse(fields))
+                .orElseThrow(() -> new BookNotFoundException("Book with ID " + id + " not found"));
+    }
+
+    /**
+     * Keyset pagination: seeks past the ID encoded in {@code after} instead of using an
+     * OFFSET, and skips the count query. One extra row is fetched to detect the last slice.
+     */
+    public CursorPage<BookResponse> getBooksAfter(String after, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        int afterId = BookCursorCodec.decode(after);
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        boolean hasNext = books.size() > size;
+        List<BookResponse> content = books.stream()
+                .limit(size)
+                .map(BookMappingHelper::convertToDto)
+                .toList();
+        String nextCursor = hasNext ? BookCursorCodec.encode(content.get(size - 1).getId()) : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    public Page<BookResponse> searchBooks(String query, Pageable pageable) {
+        return bookSearchIndex.search(query, pageable);
+    }
+
+    /**
+     * Served from the cache; concurrent misses for the same id wait for a single load.
+     */
     public BookResponse getBookById(int id) {
+        return bookCache.get(id, this::loadBookById);
+    }
+
+    /**
+     * Resolves many books at once: cached books are served from the cache and the rest are
+     * loaded with one IN query per chunk. Results follow the request order (duplicate IDs are
+     * returned once) and unknown IDs are reported instead of failing the whole request.
+     */
+    public BookBatchResponse getBooksByIds(List<Integer> ids) {
+        if (ids == null) {
+            throw new BadRequestException("A list of book IDs is required.");
+        }
+        Set<Integer> requested = new LinkedHashSet<>(ids);
+        if (requested.contains(null)) {
+            throw new BadRequestException("Book IDs must not be null.");
+        }
+        if (requested.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("A batch lookup accepts at most " + MAX_BATCH_IDS + " IDs.");
+        }
+        Map<Integer, BookResponse> found = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Integer id : requested) {
+            BookResponse cached = bookCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        for (int from = 0; from < misses.size(); from += BATCH_QUERY_CHUNK) {
+            List<Integer> chunk = misses.subList(from, Math.min(from + BATCH_QUERY_CHUNK, misses.size()));
+            for (Book book : bookRepository.findAllById(chunk)) {
+                found.put(book.getId(), convertToDto(book));
+            }
+        }
+        List<BookResponse> books = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : requested) {
+            BookResponse book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BookBatchResponse(books, missingIds);
+    }
+
+    /**
+     * Current version of a book for conditional requests: served from the cache when present,
+     * otherwise from a version-only projection that does not load the entity.
+     */
+    public Integer getBookVersion(int id) {
+        BookResponse cached = bookCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return bookRepository.findVersionById(id)
+                .orElseThrow(() -> new BookNotFoundException("Book with ID " + id + " not found"));
+    }
+
+    private BookResponse loadBookById(int id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book with ID " + id + " not found"));
         return convertToDto(book);
     }
 
+    /**
+     * Inserts the book in a single statement; the unique (name, author) index rejects
+     * duplicates atomically, including concurrent ones.
+     */
     public void addBook(BookRequest bookDto) {
         Book book = convertToEntity(bookDto);
-        if (bookRepository.existsByNameAndAuthor(book.getName(), book.getAuthor())) {
-            throw new DuplicateBookException("Book with same name and author already exists.");
-        }
-        bookRepository.save(book);
+        Book saved = save(book);
+        bookCache.invalidate(saved.getId());
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangeType.CREATED, saved.getId(), convertToDto(saved)));
     }
 
 
     public void updateBook(int id, BookRequest bookDto) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
-        book.setName(bookDto.getName());
-        book.setAuthor(bookDto.getAuthor());
-        book.setPublisher(bookDto.getPublisher());
-        book.setYearReleased(bookDto.getYearReleased());
-        bookRepository.save(book);
+        updateBook(id, bookDto, null);
+    }
+
+    /**
+     * Updates a book in a single UPDATE statement; no new version back means no row matched.
+     * When {@code expectedVersion} is given (from If-Match) the statement only matches the row
+     * while the stored version is unchanged, otherwise 412 is reported.
+     */
+    public void updateBook(int id, BookRequest bookDto, Integer expectedVersion) {
+        Optional<Integer> version = translateDuplicate(() -> expectedVersion == null
+                ? bookRepository.updateById(id, bookDto.getName(), bookDto.getAuthor(),
+                        bookDto.getPublisher(), bookDto.getYearReleased())
+                : updateIfVersion(id, expectedVersion, bookDto));
+        if (version.isEmpty()) {
+            Integer current = bookRepository.findVersionById(id)
+                    .orElseThrow(() -> new BookNotFoundException("Book with ID " + id + " not found."));
+            throw new PreconditionFailedException("Book with ID " + id + " was modified (version "
+                    + current + ", expected " + expectedVersion + ").");
+        }
+        BookResponse book = new BookResponse(id, bookDto.getName(), bookDto.getAuthor(),
+                bookDto.getPublisher(), bookDto.getYearReleased(), version.get());
+        bookCache.invalidate(id);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangeType.UPDATED, id, book));
     }
+
+    private Optional<Integer> updateIfVersion(int id, int expectedVersion, BookRequest bookDto) {
+        int updated = bookRepository.updateByIdAndVersion(id, expectedVersion, bookDto.getName(),
+                bookDto.getAuthor(), bookDto.getPublisher(), bookDto.getYearReleased());
+        return updated == 0 ? Optional.empty() : Optional.of(expectedVersion + 1);
+    }
+
+    private Book save(Book book) {
+        return translateDuplicate(() -> bookRepository.save(book));
+    }
+
+    private <T> T translateDuplicate(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException ex) {
+            if (SqlStates.isUniqueViolation(ex)) {
+                throw new DuplicateBookException("Book with same name and author already exists.");
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Deletes a book in a single DELETE statement; no row deleted means it did not exist.
+     */
     public void deleteBook(int id) {
-        if (!bookRepository.existsById(id)) {
+        if (bookRepository.deleteBookById(id) == 0) {
             throw new BookNotFoundException("Book with ID " + id + " not found.");
         }
-        bookRepository.deleteById(id);
+        bookCache.invalidate(id);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangeType.DELETED, id, null));
     }
 
+    private record PageKey(BookFilter filter, Pageable pageable) {
+    }
 }
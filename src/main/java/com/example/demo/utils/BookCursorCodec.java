@@ -0,0 +1,35 @@
+package com.example.demo.utils;
+
+import com.example.demo.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position of cursor pagination as an opaque, URL-safe token.
+ * An empty cursor means "start from the beginning".
+ */
+public class BookCursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    public static String encode(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            return Integer.parseInt(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.utils;
+
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.model.BookResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong ETags derived from {@code Book.@Version}. A single book is tagged {@code "<id>-<version>"};
+ * a page is tagged with a digest of its position and the id/version of every book on it.
+ */
+public class BookEtags {
+
+    public static String forBook(int id, Integer version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String forBook(BookResponse book) {
+        return forBook(book.getId(), book.getVersion());
+    }
+
+    public static String forPage(Page<BookResponse> page) {
+        StringBuilder sb = new StringBuilder(32 + page.getNumberOfElements() * 8);
+        sb.append(page.getNumber()).append(':').append(page.getSize()).append(':')
+                .append(page.getSort()).append(':').append(page.getTotalElements());
+        for (BookResponse book : page.getContent()) {
+            sb.append(';').append(book.getId()).append('-').append(book.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Returns the version a client expects from an {@code If-Match} header, or {@code null}
+     * when the header is absent or {@code *}.
+     */
+    public static Integer expectedVersion(String ifMatch, int id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match book with ID " + id + ".");
+        }
+        try {
+            return Integer.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match book with ID " + id + ".");
+        }
+    }
+}
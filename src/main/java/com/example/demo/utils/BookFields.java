@@ -0,0 +1,51 @@
+package com.example.demo.utils;
+
+import com.example.demo.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the {@code fields} parameter of sparse fieldset requests. Field names are the
+ * {@code BookResponse} JSON properties, which are also the {@code Book} attribute names.
+ */
+public class BookFields {
+
+    private static final Set<String> ALLOWED = Set.of("id", "name", "author", "publisher", "yearReleased", "version");
+
+    /**
+     * Rejects sort properties that are not book fields, which the Criteria projection would
+     * otherwise fail on with a 500.
+     */
+    public static void checkSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!ALLOWED.contains(order.getProperty())) {
+                throw new BadRequestException("Cannot sort by '" + order.getProperty() + "'. Allowed fields: " + ALLOWED);
+            }
+        }
+    }
+
+    public static List<String> parse(String fields) {
+        List<String> parsed = new ArrayList<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String trimmed = field.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (!ALLOWED.contains(trimmed)) {
+                    throw new BadRequestException("Unknown field '" + trimmed + "'. Allowed fields: " + ALLOWED);
+                }
+                if (!parsed.contains(trimmed)) {
+                    parsed.add(trimmed);
+                }
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new BadRequestException("fields must name at least one of " + ALLOWED);
+        }
+        return parsed;
+    }
+}
@@ -7,13 +7,8 @@ import com.example.demo.model.BookResponse;
 public class BookMappingHelper {
 
     public static BookResponse convertToDto(Book book) {
-        BookResponse dto = new BookResponse();
-        dto.setId(book.getId());
-        dto.setName(book.getName());
-        dto.setAuthor(book.getAuthor());
-        dto.setPublisher(book.getPublisher());
-        dto.setYearReleased(book.getYearReleased());
-        return dto;
+        return new BookResponse(book.getId(), book.getName(), book.getAuthor(), book.getPublisher(),
+                book.getYearReleased(), book.getVersion());
     }
 
     public static Book convertToEntity(BookRequest dto) {
@@ -0,0 +1,51 @@
+package com.example.demo.utils;
+
+import com.example.demo.model.BookResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link BookResponse} field by field with pre-encoded property names. Produces the
+ * same JSON as the default bean serializer, without reflective getter calls or per-property
+ * writer objects.
+ */
+public class BookResponseSerializer extends StdSerializer<BookResponse> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString AUTHOR = new SerializedString("author");
+    private static final SerializableString PUBLISHER = new SerializedString("publisher");
+    private static final SerializableString YEAR_RELEASED = new SerializedString("yearReleased");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    public BookResponseSerializer() {
+        super(BookResponse.class);
+    }
+
+    @Override
+    public void serialize(BookResponse book, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(book);
+        gen.writeFieldName(ID);
+        gen.writeNumber(book.getId());
+        gen.writeFieldName(NAME);
+        gen.writeString(book.getName());
+        gen.writeFieldName(AUTHOR);
+        gen.writeString(book.getAuthor());
+        gen.writeFieldName(PUBLISHER);
+        gen.writeString(book.getPublisher());
+        gen.writeFieldName(YEAR_RELEASED);
+        gen.writeNumber(book.getYearReleased());
+        gen.writeFieldName(VERSION);
+        if (book.getVersion() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(book.getVersion());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets at most {@code permits} log lines through per window and counts the ones it drops, so a
+ * flood of expected errors (e.g. 404s from a scanner) cannot turn logging into the bottleneck.
+ * Lock-free; window boundaries are approximate under contention, which is fine for logging.
+ */
+public class LogRateLimiter {
+
+    private final int permits;
+
+    private final long windowNanos;
+
+    private final AtomicLong windowStart;
+
+    private final AtomicInteger used = new AtomicInteger();
+
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permits, Duration window) {
+        this.permits = permits;
+        this.windowNanos = window.toNanos();
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Returns {@code -1} if the line should be dropped, otherwise the number of lines dropped since
+     * the last one let through.
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    public long tryAcquire(long nowNanos) {
+        long start = windowStart.get();
+        if (nowNanos - start >= windowNanos && windowStart.compareAndSet(start, nowNanos)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.utils;
+
+import java.sql.SQLException;
+
+/**
+ * Helpers to classify database errors by SQLState, which H2 and PostgreSQL share.
+ */
+public class SqlStates {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    public static boolean isUniqueViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
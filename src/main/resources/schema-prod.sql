@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS book (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    author VARCHAR(255),
+    publisher VARCHAR(255),
+    year_released INTEGER NOT NULL,
+    version INTEGER
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_book_name_author ON book (name, author);
+CREATE INDEX IF NOT EXISTS ix_book_author ON book (author);
+CREATE INDEX IF NOT EXISTS ix_book_publisher ON book (publisher);
+CREATE INDEX IF NOT EXISTS ix_book_year_released ON book (year_released);
@@ -0,0 +1,144 @@
+package com.example.demo;
+
+import com.example.demo.changes.BookChangeFeed;
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.model.BookChange;
+import com.example.demo.model.BookResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+public class BookChangeFeedTest {
+
+    private BookChangeFeed feed;
+
+    @BeforeMethod
+    public void setUp() {
+        feed = new BookChangeFeed(4, 10, Duration.ofMinutes(1));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        feed.close();
+    }
+
+    private static BookResponse book(int id, Integer version) {
+        return new BookResponse(id, "Title " + id, "Author", "Publisher", 2000, version);
+    }
+
+    @Test
+    public void testChangesAreSequencedAndReplayedAfterSince() {
+        feed.onBookChanged(new BookChangedEvent(BookChangeType.CREATED, 1, book(1, 0)));
+        feed.onBookChanged(new BookChangedEvent(BookChangeType.UPDATED, 1, book(1, 1)));
+        feed.onBookChanged(new BookChangedEvent(BookChangeType.DELETED, 1, null));
+
+        List<BookChange> changes = feed.since(1);
+
+        Assert.assertEquals(feed.lastSeq(), 3);
+        Assert.assertEquals(changes.stream().map(BookChange::getSeq).toList(), List.of(2L, 3L));
+        Assert.assertEquals(changes.get(0).getVersion(), Integer.valueOf(1));
+        Assert.assertEquals(changes.get(1).getType(), BookChangeType.DELETED);
+        Assert.assertNull(changes.get(1).getVersion());
+    }
+
+    @Test
+    public void testOverwrittenChangesAreReportedAsGone() {
+        for (int id = 1; id <= 6; id++) {
+            feed.onBookChanged(new BookChangedEvent(BookChangeType.CREATED, id, book(id, 0)));
+        }
+
+        Assert.assertNull(feed.since(0));
+        Assert.assertEquals(feed.since(2).size(), 4);
+        Assert.assertTrue(feed.since(6).isEmpty());
+    }
+
+    @Test
+    public void testIdAheadOfTheFeedIsReportedAsGone() {
+        feed.onBookChanged(new BookChangedEvent(BookChangeType.CREATED, 1, book(1, 0)));
+
+        Assert.assertTrue(feed.since(1).isEmpty());
+        Assert.assertNull(feed.since(42));
+    }
+
+    @Test
+    public void testSubscribeRegistersOnlyWhenBacklogIsAvailable() {
+        for (int id = 1; id <= 6; id++) {
+            feed.onBookChanged(new BookChangedEvent(BookChangeType.CREATED, id, book(id, 0)));
+        }
+
+        Assert.assertNotNull(feed.subscribe(6));
+        Assert.assertNotNull(feed.subscribe(0));
+
+        Assert.assertEquals(feed.subscriberCount(), 1);
+    }
+
+    @Test
+    public void testConcurrentAppendsReachSubscribersInSequenceOrder() throws Exception {
+        int writers = 8;
+        int changesPerWriter = 500;
+        BookChangeFeed bigFeed = new BookChangeFeed(100, writers * changesPerWriter, Duration.ofMinutes(1));
+        RecordingEmitter emitter = new RecordingEmitter();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            bigFeed.subscribe(0, emitter);
+            CyclicBarrier start = new CyclicBarrier(writers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < changesPerWriter; i++) {
+                        int id = writer * changesPerWriter + i;
+                        bigFeed.onBookChanged(new BookChangedEvent(BookChangeType.CREATED, id, book(id, 0)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (emitter.seqs.size() < writers * changesPerWriter && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assert.assertEquals(emitter.seqs,
+                    LongStream.rangeClosed(1, writers * changesPerWriter).boxed().toList());
+        } finally {
+            executor.shutdownNow();
+            bigFeed.close();
+        }
+    }
+
+    /**
+     * Records the event ids it is asked to send instead of writing them to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<Long> seqs = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String head = (String) builder.build().iterator().next().getData();
+            for (String line : head.split("\n")) {
+                if (line.startsWith("id:")) {
+                    seqs.add(Long.parseLong(line.substring(3)));
+                }
+            }
+        }
+    }
+}
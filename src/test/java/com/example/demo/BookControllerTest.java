@@ -1,9 +1,16 @@
 package com.example.demo;
 
+import com.example.demo.cache.BookCache;
 import com.example.demo.controller.BookController;
 import com.example.demo.exception.BookNotFoundException;
+import com.example.demo.model.BookBatchResponse;
+import com.example.demo.model.BookCacheStats;
+import com.example.demo.model.BookFilter;
 import com.example.demo.model.BookRequest;
 import com.example.demo.model.BookResponse;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.model.CursorPage;
+import com.example.demo.service.BookImportService;
 import com.example.demo.service.BookService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -11,12 +18,18 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -29,11 +42,27 @@ public class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookImportService bookImportService;
+
+    @Mock
+    private BookCache bookCache;
+
     @BeforeMethod
     public void setup() {
         MockitoAnnotations.openMocks(this);
     }
 
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/1");
+        request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     // --- UNIT TESTS ---
 
     @Test
@@ -41,6 +70,15 @@ public class BookControllerTest {
         Assert.assertEquals(bookController.welcome(), "Welcome to BookStore API Testing");
     }
 
+    @Test
+    public void testGetCacheStats_shouldReturnCacheCounters() {
+        when(bookCache.stats()).thenReturn(new BookCacheStats(1, 9, 1, 0, 0.9));
+
+        BookCacheStats stats = bookController.getCacheStats();
+        Assert.assertEquals(stats.getHits(), 9);
+        Assert.assertEquals(stats.getMisses(), 1);
+    }
+
     @DataProvider(name = "pageableProvider")
     public Object[][] pageableProvider() {
         return new Object[][] {
@@ -51,35 +89,90 @@ public class BookControllerTest {
 
     @Test(dataProvider = "pageableProvider")
     public void testGetBooks_shouldReturnPaginatedResults(Pageable pageable) {
-        BookResponse response = new BookResponse();
-        response.setId(1);
-        response.setName("Test Book");
+        BookResponse response = new BookResponse(1, "Test Book", null, null, 0);
 
-        when(bookService.getBooks(any(Pageable.class)))
+        when(bookService.getBooks(any(BookFilter.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(Collections.singletonList(response)));
 
-        Page<BookResponse> result = bookController.getBooks(pageable);
+        Page<BookResponse> result = bookController.getBooks(pageable, new BookFilter(), webRequest()).getBody();
         Assert.assertEquals(result.getContent().get(0).getName(), "Test Book");
     }
 
+    @Test
+    public void testGetBooksByCursor_shouldDelegateToService() {
+        BookResponse response = new BookResponse(1, null, null, null, 0);
+        when(bookService.getBooksAfter("", 1))
+                .thenReturn(new CursorPage<>(Collections.singletonList(response), 1, "aWQ6MQ"));
+
+        CursorPage<BookResponse> result = bookController.getBooksByCursor("", 1);
+        Assert.assertEquals(result.getNextCursor(), "aWQ6MQ");
+        Assert.assertEquals(result.getContent().get(0).getId(), 1);
+    }
+
+    @Test
+    public void testGetBooksByIds_shouldReturnBatch() {
+        BookResponse response = new BookResponse(1, "Test Book", "Author", "Pub", 2000);
+        when(bookService.getBooksByIds(List.of(1, 404)))
+                .thenReturn(new BookBatchResponse(List.of(response), List.of(404)));
+
+        BookBatchResponse result = bookController.getBooksByIds(List.of(1, 404));
+        Assert.assertEquals(result.getBooks().get(0).getId(), 1);
+        Assert.assertEquals(result.getMissingIds(), List.of(404));
+    }
+
     @Test
     public void testGetBookById_shouldReturnBook() {
-        BookResponse response = new BookResponse();
-        response.setId(1);
-        response.setName("Test Book");
+        BookResponse response = new BookResponse(1, "Test Book", null, null, 0);
 
         when(bookService.getBookById(1)).thenReturn(response);
 
-        BookResponse result = bookController.getBookById(1);
+        BookResponse result = bookController.getBookById(1, webRequest()).getBody();
         Assert.assertEquals(result.getId(), 1);
     }
 
+    @Test
+    public void testGetBookById_shouldReturnVersionEtag() {
+        BookResponse response = new BookResponse(1, "Test Book", "Author", "Pub", 2000, 3);
+        when(bookService.getBookById(1)).thenReturn(response);
+
+        ResponseEntity<BookResponse> result = bookController.getBookById(1, webRequest());
+        Assert.assertEquals(result.getHeaders().getETag(), "\"1-3\"");
+    }
+
+    @Test
+    public void testGetBookById_whenEtagMatches_shouldReturnNotModifiedWithoutLoading() {
+        when(bookService.getBookVersion(1)).thenReturn(3);
+
+        ResponseEntity<BookResponse> result = bookController.getBookById(1, webRequest("\"1-3\""));
+        Assert.assertEquals(result.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        Assert.assertNull(result.getBody());
+        verify(bookService, never()).getBookById(anyInt());
+    }
+
+    @Test
+    public void testGetBookById_whenEtagStale_shouldReturnBook() {
+        BookResponse response = new BookResponse(1, "Test Book", "Author", "Pub", 2000, 4);
+        when(bookService.getBookVersion(1)).thenReturn(4);
+        when(bookService.getBookById(1)).thenReturn(response);
+
+        ResponseEntity<BookResponse> result = bookController.getBookById(1, webRequest("\"1-3\""));
+        Assert.assertEquals(result.getStatusCode(), HttpStatus.OK);
+        Assert.assertEquals(result.getBody().getVersion(), Integer.valueOf(4));
+    }
+
+    @Test
+    public void testUpdateBook_withIfMatch_shouldPassExpectedVersion() {
+        BookRequest request = new BookRequest();
+        bookController.updateBook(1, request, "\"1-7\"");
+        verify(bookService).updateBook(1, request, 7);
+    }
+
     @Test(expectedExceptions = BookNotFoundException.class)
     public void testGetBookById_whenNotFound_shouldThrowException() {
         when(bookService.getBookById(anyInt()))
                 .thenThrow(new BookNotFoundException("Not Found"));
 
-        bookController.getBookById(999);
+        bookController.getBookById(999, webRequest());
     }
 
     @Test
@@ -90,19 +183,29 @@ public class BookControllerTest {
         verify(bookService).addBook(any(BookRequest.class));
     }
 
+    @Test
+    public void testImportBooks_shouldReturnImportReport() {
+        List<BookRequest> requests = List.of(new BookRequest("Bulk", "Author", "Pub", 2020));
+        when(bookImportService.importBooks(requests))
+                .thenReturn(new BulkImportResult(1, 0, 0, 5, 200.0, Collections.emptyList()));
+
+        BulkImportResult result = bookController.importBooks(requests);
+        Assert.assertEquals(result.getCreated(), 1);
+    }
+
     @Test
     public void testUpdateBook_shouldInvokeService() {
         BookRequest request = new BookRequest();
         request.setName("Updated Book");
-        bookController.updateBook(1, request);
-        verify(bookService).updateBook(eq(1), any(BookRequest.class));
+        bookController.updateBook(1, request, null);
+        verify(bookService).updateBook(eq(1), any(BookRequest.class), isNull());
     }
 
     @Test(expectedExceptions = BookNotFoundException.class)
     public void testUpdateBook_whenNotFound_shouldThrowException() {
         doThrow(new BookNotFoundException("Not Found"))
-                .when(bookService).updateBook(eq(1), any(BookRequest.class));
-        bookController.updateBook(1, new BookRequest());
+                .when(bookService).updateBook(eq(1), any(BookRequest.class), isNull());
+        bookController.updateBook(1, new BookRequest(), null);
     }
 
     @Test
@@ -124,15 +227,13 @@ public class BookControllerTest {
     public void testAddThenGetBook_shouldReturnAddedBook() {
         BookRequest request = new BookRequest();
         request.setName("CT Book");
-        BookResponse response = new BookResponse();
-        response.setId(1);
-        response.setName("CT Book");
+        BookResponse response = new BookResponse(1, "CT Book", null, null, 0);
 
-        when(bookService.getBooks(any(Pageable.class)))
+        when(bookService.getBooks(any(BookFilter.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(Collections.singletonList(response)));
 
         bookController.addBook(request);
-        Page<BookResponse> result = bookController.getBooks(Pageable.unpaged());
+        Page<BookResponse> result = bookController.getBooks(Pageable.unpaged(), new BookFilter(), webRequest()).getBody();
 
         Assert.assertTrue(result.getContent().stream()
                 .anyMatch(book -> book.getName().equals("CT Book")));
@@ -143,16 +244,14 @@ public class BookControllerTest {
         BookRequest request = new BookRequest();
         request.setName("Old Name");
 
-        BookResponse updated = new BookResponse();
-        updated.setId(1);
-        updated.setName("New Name");
+        BookResponse updated = new BookResponse(1, "New Name", null, null, 0);
 
         when(bookService.getBookById(1)).thenReturn(updated);
 
         bookController.addBook(request);
-        bookController.updateBook(1, request);
+        bookController.updateBook(1, request, null);
 
-        BookResponse result = bookController.getBookById(1);
+        BookResponse result = bookController.getBookById(1, webRequest()).getBody();
         Assert.assertEquals(result.getName(), "New Name");
     }
 
@@ -168,7 +267,7 @@ public class BookControllerTest {
         bookController.deleteBook(1);
 
         try {
-            bookController.getBookById(1);
+            bookController.getBookById(1, webRequest());
             Assert.fail("Expected BookNotFoundException");
         } catch (BookNotFoundException ex) {
             Assert.assertTrue(ex.getMessage().contains("not found"));
@@ -0,0 +1,73 @@
+package com.example.demo;
+
+import com.example.demo.model.ExportFormat;
+import com.example.demo.service.BookExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BookExportServiceTest {
+
+    @InjectMocks
+    private BookExportService bookExportService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt(1)).thenReturn(1, 2);
+        when(rs.getString(2)).thenReturn("The Hobbit", "Jane Eyre");
+        when(rs.getString(3)).thenReturn("J.R.R. Tolkien", "Charlotte Brontë");
+        when(rs.getString(4)).thenReturn("George Allen & Unwin", "Smith, Elder & Co.");
+        when(rs.getInt(5)).thenReturn(1937, 1847);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void testExport_Ndjson_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookExportService.export(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assert.assertEquals(lines.length, 2);
+        Assert.assertEquals(objectMapper.readTree(lines[0]).get("name").asText(), "The Hobbit");
+        Assert.assertEquals(objectMapper.readTree(lines[1]).get("yearReleased").asInt(), 1847);
+    }
+
+    @Test
+    public void testExport_Csv_QuotesFieldsWithCommas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookExportService.export(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assert.assertEquals(lines[0], "id,name,author,publisher,yearReleased");
+        Assert.assertEquals(lines[1], "1,The Hobbit,J.R.R. Tolkien,George Allen & Unwin,1937");
+        Assert.assertEquals(lines[2], "2,Jane Eyre,Charlotte Brontë,\"Smith, Elder & Co.\",1847");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo;
+
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.service.BookImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:${random.uuid}", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+public class BookImportIntegrationTests extends AbstractTestNGSpringContextTests {
+
+    private static final int THREADS = 8;
+
+    private static final int BOOKS = 50;
+
+    @Autowired
+    BookImportService bookImportService;
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @Test
+    public void concurrentImportsOfSameBooksInsertEachOnce() throws Exception {
+        List<BookRequest> requests = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            requests.add(new BookRequest("Race import " + i, "Bulk Racer", "Pub", 2024));
+            names.add("Race import " + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<BulkImportResult>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return bookImportService.importBooks(requests);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<BulkImportResult> future : futures) {
+                BulkImportResult result = future.get(30, TimeUnit.SECONDS);
+                Assert.assertEquals(result.getCreated() + result.getDuplicates(), BOOKS);
+                created += result.getCreated();
+            }
+
+            Assert.assertEquals(created, BOOKS);
+            Assert.assertEquals(bookRepository.findKeysByNameIn(names).size(), BOOKS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reimportReportsEveryRowAsDuplicate() {
+        List<BookRequest> requests = List.of(
+                new BookRequest("Reimport 1", "Bulk Author", "Pub", 2024),
+                new BookRequest("Reimport 2", "Bulk Author", "Pub", 2024));
+
+        BulkImportResult first = bookImportService.importBooks(requests);
+        BulkImportResult second = bookImportService.importBooks(requests);
+
+        Assert.assertEquals(first.getCreated(), 2);
+        Assert.assertEquals(second.getCreated(), 0);
+        Assert.assertEquals(second.getDuplicates(), 2);
+    }
+}
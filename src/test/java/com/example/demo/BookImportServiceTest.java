@@ -0,0 +1,169 @@
+package com.example.demo;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.BookKey;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.model.BulkImportStatus;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.service.BookImportService;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BookImportServiceTest {
+
+    @InjectMocks
+    private BookImportService bookImportService;
+
+    @Mock
+    private BookRepo bookRepo;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Connection connection;
+
+    private int nextId;
+
+    @BeforeMethod
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        nextId = 100;
+        when(connection.setSavepoint()).thenReturn(mock(Savepoint.class));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keyHolder = invocation.getArgument(2);
+                    for (int i = 0; i < setter.getBatchSize(); i++) {
+                        keyHolder.getKeyList().add(Map.of("ID", nextId++));
+                    }
+                    return new int[setter.getBatchSize()];
+                });
+    }
+
+    private static BookKey key(String name, String author) {
+        return new BookKey() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getAuthor() {
+                return author;
+            }
+        };
+    }
+
+    @Test
+    public void testImportBooks_ReportsEachItemInRequestOrder() {
+        when(bookRepo.findKeysByNameIn(anyCollection()))
+                .thenReturn(List.of(key("1984", "George Orwell")));
+
+        List<BookRequest> requests = List.of(
+                new BookRequest("New Title", "Author", "Pub", 2020),
+                new BookRequest("1984", "George Orwell", "Secker & Warburg", 1949),
+                new BookRequest("New Title", "Author", "Other Pub", 2021),
+                new BookRequest(null, "Author", "Pub", 2020),
+                new BookRequest("Second", "Author", "Pub", 2022));
+
+        BulkImportResult result = bookImportService.importBooks(requests);
+
+        Assert.assertEquals(result.getCreated(), 2);
+        Assert.assertEquals(result.getDuplicates(), 2);
+        Assert.assertEquals(result.getInvalid(), 1);
+        Assert.assertEquals(result.getItems().get(0).getStatus(), BulkImportStatus.CREATED);
+        Assert.assertEquals(result.getItems().get(0).getId(), Integer.valueOf(100));
+        Assert.assertEquals(result.getItems().get(1).getStatus(), BulkImportStatus.DUPLICATE);
+        Assert.assertEquals(result.getItems().get(2).getStatus(), BulkImportStatus.DUPLICATE);
+        Assert.assertEquals(result.getItems().get(3).getStatus(), BulkImportStatus.INVALID);
+        Assert.assertEquals(result.getItems().get(4).getId(), Integer.valueOf(101));
+        verify(bookRepo, times(1)).findKeysByNameIn(anyCollection());
+        verify(bookRepo, never()).existsByNameAndAuthor(anyString(), anyString());
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void testImportBooks_InsertsInBatches() {
+        when(bookRepo.findKeysByNameIn(anyCollection())).thenReturn(Collections.emptyList());
+        List<BookRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            requests.add(new BookRequest("Title " + i, "Author", "Pub", 2000));
+        }
+
+        BulkImportResult result = bookImportService.importBooks(requests);
+
+        Assert.assertEquals(result.getCreated(), 1200);
+        verify(jdbcTemplate, times(3)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        verify(bookRepo, times(2)).findKeysByNameIn(anyCollection());
+    }
+
+    @Test
+    public void testImportBooks_ConcurrentDuplicateOnlyRejectsItsRow() {
+        when(bookRepo.findKeysByNameIn(anyCollection())).thenReturn(Collections.emptyList());
+        AtomicInteger singleRowInserts = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keyHolder = invocation.getArgument(2);
+                    // The whole batch and then its second row collide with a concurrent insert
+                    if (setter.getBatchSize() > 1 || singleRowInserts.incrementAndGet() == 2) {
+                        throw new DataIntegrityViolationException("duplicate",
+                                new SQLException("Unique index or primary key violation", "23505"));
+                    }
+                    keyHolder.getKeyList().add(Map.of("ID", nextId++));
+                    return new int[] {1};
+                });
+
+        BulkImportResult result = bookImportService.importBooks(List.of(
+                new BookRequest("One", "Author", "Pub", 2020),
+                new BookRequest("Two", "Author", "Pub", 2020),
+                new BookRequest("Three", "Author", "Pub", 2020)));
+
+        Assert.assertEquals(result.getCreated(), 2);
+        Assert.assertEquals(result.getDuplicates(), 1);
+        Assert.assertEquals(result.getItems().get(0).getStatus(), BulkImportStatus.CREATED);
+        Assert.assertEquals(result.getItems().get(1).getStatus(), BulkImportStatus.DUPLICATE);
+        Assert.assertEquals(result.getItems().get(2).getStatus(), BulkImportStatus.CREATED);
+        Assert.assertEquals(result.getItems().get(2).getId(), Integer.valueOf(101));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        verify(connection, times(2)).rollback(any(Savepoint.class));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testImportBooks_TooManyItems() {
+        bookImportService.importBooks(Collections.nCopies(10001, new BookRequest("T", "A", "P", 2000)));
+    }
+}
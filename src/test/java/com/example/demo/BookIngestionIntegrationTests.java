@@ -0,0 +1,56 @@
+package com.example.demo;
+
+import com.example.demo.ingest.BookIngestionQueue;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.IngestionState;
+import com.example.demo.model.IngestionStatus;
+import com.example.demo.repo.BookRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:${random.uuid}", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+public class BookIngestionIntegrationTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    BookIngestionQueue ingestionQueue;
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @Test
+    public void submissionIsWrittenAndReachesCreated() throws Exception {
+        IngestionStatus pending = ingestionQueue.submit(new BookRequest("Queued Book", "Queue Author", "Pub", 2024));
+
+        IngestionStatus done = awaitSettled(pending.getTrackingId());
+
+        Assert.assertEquals(done.getState(), IngestionState.CREATED, done.getMessage());
+        Assert.assertNotNull(done.getBookId());
+        Assert.assertEquals(bookRepository.findById(done.getBookId()).orElseThrow().getName(), "Queued Book");
+    }
+
+    @Test
+    public void resubmittedBookSettlesAsDuplicate() throws Exception {
+        BookRequest request = new BookRequest("Queued Twice", "Queue Author", "Pub", 2024);
+        IngestionStatus first = awaitSettled(ingestionQueue.submit(request).getTrackingId());
+        IngestionStatus second = awaitSettled(ingestionQueue.submit(request).getTrackingId());
+
+        Assert.assertEquals(first.getState(), IngestionState.CREATED, first.getMessage());
+        Assert.assertEquals(second.getState(), IngestionState.DUPLICATE);
+    }
+
+    private IngestionStatus awaitSettled(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        IngestionStatus status = ingestionQueue.status(trackingId);
+        while (status.getState() == IngestionState.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            status = ingestionQueue.status(trackingId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.IngestionQueueFullException;
+import com.example.demo.ingest.BookIngestionQueue;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BulkImportItemResult;
+import com.example.demo.model.BulkImportResult;
+import com.example.demo.model.BulkImportStatus;
+import com.example.demo.model.IngestionState;
+import com.example.demo.model.IngestionStatus;
+import com.example.demo.service.BookImportService;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class BookIngestionQueueTest {
+
+    private BookImportService bookImportService;
+
+    private BookIngestionQueue queue;
+
+    @BeforeMethod
+    public void setUp() {
+        bookImportService = mock(BookImportService.class);
+        queue = new BookIngestionQueue(bookImportService, 2, 500, Duration.ofSeconds(3), Duration.ofMinutes(5));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        queue.stop();
+    }
+
+    private IngestionStatus awaitDone(String trackingId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            IngestionStatus status = queue.status(trackingId);
+            if (status.getState() != IngestionState.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Submission " + trackingId + " still pending");
+    }
+
+    @Test
+    public void testSubmit_WrittenInOneCoalescedBatch() throws Exception {
+        when(bookImportService.importBooks(anyList())).thenReturn(new BulkImportResult(1, 1, 0, 1, 1000.0, List.of(
+                new BulkImportItemResult(0, BulkImportStatus.CREATED, 51, null),
+                new BulkImportItemResult(1, BulkImportStatus.DUPLICATE, null, "Book with same name and author already exists."))));
+
+        IngestionStatus first = queue.submit(new BookRequest("Async", "Author", "Pub", 2024));
+        IngestionStatus second = queue.submit(new BookRequest("Async", "Author", "Pub", 2024));
+        Assert.assertEquals(first.getState(), IngestionState.PENDING);
+        queue.start();
+
+        IngestionStatus created = awaitDone(first.getTrackingId());
+        Assert.assertEquals(created.getState(), IngestionState.CREATED);
+        Assert.assertEquals(created.getBookId(), Integer.valueOf(51));
+        Assert.assertEquals(awaitDone(second.getTrackingId()).getState(), IngestionState.DUPLICATE);
+        verify(bookImportService, times(1)).importBooks(anyList());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedPerSubmission() throws Exception {
+        when(bookImportService.importBooks(anyList())).thenAnswer(invocation -> {
+            List<BookRequest> requests = invocation.getArgument(0);
+            if (requests.size() > 1 || requests.get(0).getName().equals("Bad")) {
+                throw new IllegalStateException("write failed");
+            }
+            return new BulkImportResult(1, 0, 0, 1, 1000.0,
+                    List.of(new BulkImportItemResult(0, BulkImportStatus.CREATED, 7, null)));
+        });
+
+        IngestionStatus good = queue.submit(new BookRequest("Good", "Author", "Pub", 2024));
+        IngestionStatus bad = queue.submit(new BookRequest("Bad", "Author", "Pub", 2024));
+        queue.start();
+
+        Assert.assertEquals(awaitDone(good.getTrackingId()).getState(), IngestionState.CREATED);
+        IngestionStatus failed = awaitDone(bad.getTrackingId());
+        Assert.assertEquals(failed.getState(), IngestionState.FAILED);
+        Assert.assertEquals(failed.getMessage(), "write failed");
+        verify(bookImportService, times(3)).importBooks(anyList());
+    }
+
+    @Test
+    public void testStopFailsSubmissionsLeftInQueue() {
+        IngestionStatus pending = queue.submit(new BookRequest("Late", "Author", "Pub", 2024));
+
+        queue.stop();
+
+        Assert.assertEquals(queue.status(pending.getTrackingId()).getState(), IngestionState.FAILED);
+        verify(bookImportService, never()).importBooks(anyList());
+    }
+
+    @Test
+    public void testSubmit_QueueFullRejectsWithRetryAfter() {
+        queue.submit(new BookRequest("One", "Author", "Pub", 2024));
+        queue.submit(new BookRequest("Two", "Author", "Pub", 2024));
+        try {
+            queue.submit(new BookRequest("Three", "Author", "Pub", 2024));
+            Assert.fail("Expected IngestionQueueFullException");
+        } catch (IngestionQueueFullException ex) {
+            Assert.assertEquals(ex.getRetryAfterSeconds(), 3);
+        }
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testSubmit_RejectsInvalidBook() {
+        queue.submit(new BookRequest(null, "Author", "Pub", 2024));
+    }
+
+    @Test
+    public void testStatus_UnknownTrackingId() {
+        Assert.assertNull(queue.status("unknown"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo;
+
+import com.example.demo.cache.BookPageCacheFilter;
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+public class BookPageCacheFilterTest {
+
+    private static final String BODY = "{\"content\":[" + "{\"id\":1,\"name\":\"Book\"},".repeat(100) + "{}]}";
+
+    private BookPageCacheFilter filter;
+
+    private AtomicInteger calls;
+
+    private FilterChain chain;
+
+    @BeforeMethod
+    public void setUp() {
+        filter = new BookPageCacheFilter(16, 4);
+        calls = new AtomicInteger();
+        chain = (request, response) -> {
+            calls.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(HttpServletResponse.SC_OK);
+            http.setContentType("application/json");
+            http.setHeader("ETag", "\"page-etag\"");
+            String origin = ((HttpServletRequest) request).getHeader("Origin");
+            http.addHeader("Vary", "Origin");
+            if (origin != null) {
+                http.setHeader("Access-Control-Allow-Origin", "*");
+            }
+            http.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletResponse get(String page, String... headers) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        if (page != null) {
+            request.setParameter("page", page);
+        }
+        for (int i = 0; i < headers.length; i += 2) {
+            request.addHeader(headers[i], headers[i + 1]);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    public void testRepeatedPageIsServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("0");
+        MockHttpServletResponse second = get("0");
+
+        Assert.assertEquals(calls.get(), 1);
+        Assert.assertEquals(first.getContentAsString(), BODY);
+        Assert.assertEquals(second.getContentAsString(), BODY);
+        Assert.assertEquals(second.getHeader("ETag"), "\"page-etag\"");
+    }
+
+    @Test
+    public void testCachedPageIsGzippedWhenAccepted() throws Exception {
+        get("0");
+        MockHttpServletResponse response = get("0", "Accept-Encoding", "gzip, deflate");
+
+        Assert.assertEquals(response.getHeader("Content-Encoding"), "gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            Assert.assertEquals(new String(in.readAllBytes(), StandardCharsets.UTF_8), BODY);
+        }
+    }
+
+    @Test
+    public void testCachedPageHonoursIfNoneMatch() throws Exception {
+        get("0");
+        MockHttpServletResponse response = get("0", "If-None-Match", "\"page-etag\"");
+
+        Assert.assertEquals(response.getStatus(), HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals(response.getContentAsByteArray().length, 0);
+    }
+
+    @Test
+    public void testBookChangeInvalidatesCache() throws Exception {
+        get("0");
+        filter.onBookChanged(new BookChangedEvent(BookChangeType.DELETED, 1, null));
+        get("0");
+
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void testDeepPagesAndOtherParamsBypassCache() throws Exception {
+        get("9");
+        get("9");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        request.setParameter("fields", "id");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assert.assertEquals(calls.get(), 4);
+    }
+
+    @Test
+    public void testCachedPageReplaysHandlerHeadersPerOrigin() throws Exception {
+        get("0", "Origin", "https://shop.example");
+        MockHttpServletResponse hit = get("0", "Origin", "https://shop.example");
+        MockHttpServletResponse noOrigin = get("0");
+
+        Assert.assertEquals(calls.get(), 2);
+        Assert.assertEquals(hit.getHeader("Access-Control-Allow-Origin"), "*");
+        Assert.assertTrue(hit.getHeaders("Vary").contains("Origin"));
+        Assert.assertNull(noOrigin.getHeader("Access-Control-Allow-Origin"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo;
+
+import com.example.demo.model.BookResponse;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BookResponseSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testWritesAllFieldsInDeclarationOrder() throws Exception {
+        BookResponse book = new BookResponse(1, "1984", "George Orwell", "Secker & Warburg", 1949, 3);
+
+        Assert.assertEquals(objectMapper.writeValueAsString(book),
+                "{\"id\":1,\"name\":\"1984\",\"author\":\"George Orwell\",\"publisher\":\"Secker & Warburg\","
+                        + "\"yearReleased\":1949,\"version\":3}");
+    }
+
+    @Test
+    public void testMatchesBeanSerializerOutput() throws Exception {
+        ObjectMapper reflective = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+        BookResponse book = new BookResponse(2, "Untitled", null, null, 0);
+
+        Assert.assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(book)),
+                reflective.readTree(reflective.writeValueAsString(book)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo;
+
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.model.Book;
+import com.example.demo.model.BookResponse;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.search.BookSearchIndex;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class BookSearchIndexTest {
+
+    @InjectMocks
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookRepo bookRepo;
+
+    @BeforeMethod
+    public void setUp() {
+        bookSearchIndex = new BookSearchIndex();
+        MockitoAnnotations.openMocks(this);
+        List<Book> books = List.of(
+                new Book(1, "The Hobbit", "J.R.R. Tolkien", "George Allen & Unwin", 1937, 0),
+                new Book(10, "The Lord of the Rings", "J.R.R. Tolkien", "Allen & Unwin", 1954, 0),
+                new Book(16, "Jane Eyre", "Charlotte Brontë", "Smith, Elder & Co.", 1847, 0),
+                new Book(17, "Wuthering Heights", "Emily Brontë", "Thomas Cautley Newby", 1847, 0),
+                new Book(30, "Tolkien: A Biography", "Humphrey Carpenter", "Allen & Unwin", 1977, 0));
+        when(bookRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(books));
+        bookSearchIndex.rebuild();
+    }
+
+    private static List<Integer> ids(Page<BookResponse> page) {
+        return page.getContent().stream().map(BookResponse::getId).toList();
+    }
+
+    @Test
+    public void testSearch_PrefixMatchesForTypeahead() {
+        Assert.assertEquals(ids(bookSearchIndex.search("hob", PageRequest.of(0, 10))), List.of(1));
+    }
+
+    @Test
+    public void testSearch_NameMatchRanksAboveAuthorMatch() {
+        Assert.assertEquals(ids(bookSearchIndex.search("tolkien", PageRequest.of(0, 10))), List.of(30, 1, 10));
+    }
+
+    @Test
+    public void testSearch_CaseAndAccentFolded() {
+        Assert.assertEquals(ids(bookSearchIndex.search("BRONTE", PageRequest.of(0, 10))), List.of(16, 17));
+    }
+
+    @Test
+    public void testSearch_AllTermsMustMatch() {
+        Assert.assertEquals(ids(bookSearchIndex.search("tolkien lord", PageRequest.of(0, 10))), List.of(10));
+    }
+
+    @Test
+    public void testSearch_Paginates() {
+        Page<BookResponse> page = bookSearchIndex.search("tolkien", PageRequest.of(1, 2));
+        Assert.assertEquals(page.getTotalElements(), 3);
+        Assert.assertEquals(ids(page), List.of(10));
+    }
+
+    @Test
+    public void testOnBookChanged_UpdatesIndexIncrementally() {
+        BookResponse renamed = new BookResponse(1, "There and Back Again", "J.R.R. Tolkien", "George Allen & Unwin", 1937);
+        bookSearchIndex.onBookChanged(new BookChangedEvent(BookChangeType.UPDATED, 1, renamed));
+        bookSearchIndex.onBookChanged(new BookChangedEvent(BookChangeType.DELETED, 16, null));
+
+        Assert.assertTrue(bookSearchIndex.search("hobbit", PageRequest.of(0, 10)).isEmpty());
+        Assert.assertEquals(ids(bookSearchIndex.search("back again", PageRequest.of(0, 10))), List.of(1));
+        Assert.assertEquals(ids(bookSearchIndex.search("bronte", PageRequest.of(0, 10))), List.of(17));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo;
+
+import com.example.demo.exception.DuplicateBookException;
+import com.example.demo.model.BookRequest;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.service.BookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:${random.uuid}", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+public class BookServiceConcurrencyTests extends AbstractTestNGSpringContextTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookServiceConcurrencyTests.class);
+
+    private static final int THREADS = 32;
+
+    private static final int ROUNDS = 20;
+
+    private static final int UPDATES_PER_THREAD = 10;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @Test
+    public void concurrentAddsOfSameBookInsertExactlyOne() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicLong totalNanos = new AtomicLong();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                BookRequest request = new BookRequest("Race " + round, "Concurrent Author", "Pub", 2024);
+                AtomicInteger created = new AtomicInteger();
+                AtomicInteger duplicates = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        long begin = System.nanoTime();
+                        try {
+                            bookService.addBook(request);
+                            created.incrementAndGet();
+                        } catch (DuplicateBookException ex) {
+                            duplicates.incrementAndGet();
+                        } finally {
+                            totalNanos.addAndGet(System.nanoTime() - begin);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                Assert.assertEquals(created.get(), 1);
+                Assert.assertEquals(duplicates.get(), THREADS - 1);
+                Assert.assertEquals(bookRepository.findKeysByNameIn(List.of(request.getName())).size(), 1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Mean addBook latency under contention: {} us",
+                totalNanos.get() / (THREADS * ROUNDS) / 1_000);
+    }
+
+    @Test
+    public void concurrentUpdatesOfSameBookLoseNothing() throws Exception {
+        bookService.addBook(new BookRequest("Contended", "Concurrent Author", "Pub 0", 2024));
+        int id = bookRepository.findAll().stream()
+                .filter(book -> book.getName().equals("Contended"))
+                .findFirst().orElseThrow().getId();
+        int initialVersion = bookService.getBookVersion(id);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger updated = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long begin = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        bookService.updateBook(id, new BookRequest("Contended", "Concurrent Author",
+                                "Pub " + thread + "-" + i, 2024));
+                        updated.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+
+        // Every acknowledged update produced its own version: none was silently overwritten.
+        Assert.assertEquals(updated.get(), THREADS * UPDATES_PER_THREAD);
+        Assert.assertEquals(bookService.getBookVersion(id), Integer.valueOf(initialVersion + updated.get()));
+        logger.info("{} contended updates in {} ms: {} updates/s",
+                updated.get(), elapsedMillis, updated.get() * 1000L / elapsedMillis);
+    }
+}
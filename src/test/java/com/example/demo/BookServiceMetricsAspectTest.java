@@ -0,0 +1,104 @@
+package com.example.demo;
+
+import com.example.demo.exception.BookNotFoundException;
+import com.example.demo.exception.DuplicateBookException;
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.metrics.BookServiceMetricsAspect;
+import com.example.demo.model.BookRequest;
+import com.example.demo.model.BookResponse;
+import com.example.demo.service.BookService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class BookServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+
+    private BookService target;
+
+    private BookService proxy;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = mock(BookService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BookServiceMetricsAspect(registry));
+        proxy = factory.getProxy();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return registry.find("bookstore.service")
+                .tags("operation", operation, "outcome", outcome)
+                .timer();
+    }
+
+    @Test
+    public void testSuccessIsTimed() {
+        when(target.getBookById(1)).thenReturn(new BookResponse(1, "Title", "Author", "Publisher", 2000));
+        proxy.getBookById(1);
+
+        Assert.assertEquals(timer("getBookById", "success").count(), 1);
+    }
+
+    @Test
+    public void testTimerIsRegisteredOnceAndReused() {
+        when(target.getBookById(1)).thenReturn(new BookResponse(1, "Title", "Author", "Publisher", 2000));
+        proxy.getBookById(1);
+        Timer first = timer("getBookById", "success");
+        proxy.getBookById(1);
+
+        Assert.assertSame(timer("getBookById", "success"), first);
+        Assert.assertEquals(first.count(), 2);
+        Assert.assertEquals(registry.find("bookstore.service").timers().size(), 1);
+    }
+
+    @Test
+    public void testNotFoundOutcome() {
+        when(target.getBookById(99)).thenThrow(new BookNotFoundException("not found"));
+        try {
+            proxy.getBookById(99);
+            Assert.fail("Expected BookNotFoundException");
+        } catch (BookNotFoundException expected) {
+            // expected
+        }
+
+        Assert.assertEquals(timer("getBookById", "not_found").count(), 1);
+    }
+
+    @Test
+    public void testDuplicateOutcome() {
+        doThrow(new DuplicateBookException("duplicate")).when(target).addBook(any(BookRequest.class));
+        try {
+            proxy.addBook(new BookRequest());
+            Assert.fail("Expected DuplicateBookException");
+        } catch (DuplicateBookException expected) {
+            // expected
+        }
+
+        Assert.assertEquals(timer("addBook", "duplicate").count(), 1);
+    }
+
+    @Test
+    public void testStaleIfMatchCountsConflict() {
+        doThrow(new PreconditionFailedException("stale")).when(target).updateBook(anyInt(), any(BookRequest.class), any());
+        try {
+            proxy.updateBook(1, new BookRequest(), 1);
+            Assert.fail("Expected PreconditionFailedException");
+        } catch (PreconditionFailedException expected) {
+            // expected
+        }
+
+        Assert.assertEquals(timer("updateBook", "conflict").count(), 1);
+        Assert.assertEquals(registry.get("bookstore.optimistic_lock.conflicts").counter().count(), 1.0);
+    }
+}
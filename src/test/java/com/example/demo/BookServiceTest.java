@@ -1,27 +1,58 @@
 package com.example.demo;
 
+import com.example.demo.cache.BookCache;
+import com.example.demo.event.BookChangeType;
+import com.example.demo.event.BookChangedEvent;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.BookNotFoundException;
 import com.example.demo.exception.DuplicateBookException;
+import com.example.demo.exception.PreconditionFailedException;
 import com.example.demo.model.Book;
+import com.example.demo.model.BookBatchResponse;
+import com.example.demo.model.BookFilter;
 import com.example.demo.model.BookRequest;
 import com.example.demo.model.BookResponse;
+import com.example.demo.model.CursorPage;
 import com.example.demo.repo.BookRepo;
+import com.example.demo.search.BookSearchIndex;
 import com.example.demo.service.BookService;
+import com.example.demo.utils.BookCursorCodec;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -34,19 +65,36 @@ public class BookServiceTest {
     @Mock
     private BookRepo bookRepo;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(5));
+
     private BookRequest request;
     private Book book;
 
     @BeforeMethod
     public void setUp() {
+        bookCache = new BookCache(100, Duration.ofMinutes(5));
         MockitoAnnotations.openMocks(this);
+        when(bookRepo.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
         request = new BookRequest("Title", "Author", "Publisher", 2000);
         book = new Book(1, "Title", "Author", "Publisher", 2000, 0);
     }
 
-    @BeforeMethod
-    public void setup() {
-        MockitoAnnotations.openMocks(this);
+    private void stubUpdatedVersion(Integer version) {
+        when(bookRepo.updateById(anyInt(), any(), any(), any(), anyInt())).thenReturn(Optional.ofNullable(version));
+        when(bookRepo.updateByIdAndVersion(anyInt(), anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(version == null ? 0 : 1);
+    }
+
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate",
+                new SQLException("Unique index or primary key violation", "23505"));
     }
 
     // --- getBooks ---
@@ -65,6 +113,119 @@ public class BookServiceTest {
         Assert.assertEquals(result.getContent().get(0).getName(), "Test Book");
     }
 
+    @Test
+    public void testGetBooks_FilterIsPushedDownAsSpecification() {
+        when(bookRepo.findAll(ArgumentMatchers.<Specification<Book>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(book)));
+
+        Page<BookResponse> result = bookService.getBooks(new BookFilter("Author", null, 1990, 2010), PageRequest.of(0, 20));
+
+        Assert.assertEquals(result.getContent().get(0).getAuthor(), "Author");
+        verify(bookRepo, never()).findAll(any(Pageable.class));
+    }
+
+    private static <T> List<T> concurrently(int threads, Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return call.call();
+                }));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> Answer<T> slowly(Answer<T> answer) {
+        return invocation -> {
+            Thread.sleep(200);
+            return answer.answer(invocation);
+        };
+    }
+
+    @Test
+    public void testGetBooks_ConcurrentIdenticalPagesShareOneQueryPerWave() throws Exception {
+        when(bookRepo.findAll(any(Pageable.class))).thenAnswer(slowly(invocation -> new PageImpl<>(List.of(book))));
+
+        for (int round = 1; round <= 3; round++) {
+            List<Page<BookResponse>> pages = concurrently(16, () -> bookService.getBooks(PageRequest.of(0, 20)));
+            pages.forEach(page -> Assert.assertSame(page, pages.get(0)));
+            verify(bookRepo, times(round)).findAll(any(Pageable.class));
+        }
+    }
+
+    @Test
+    public void testGetBookById_ConcurrentMissesShareOneQueryPerWave() throws Exception {
+        when(bookRepo.findById(1)).thenAnswer(slowly(invocation -> Optional.of(book)));
+
+        for (int round = 1; round <= 3; round++) {
+            bookCache.invalidate(1);
+            concurrently(16, () -> bookService.getBookById(1));
+            verify(bookRepo, times(round)).findById(1);
+        }
+    }
+
+    @Test
+    public void testGetBooks_EmptyFilterUsesPlainPage() {
+        when(bookRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(book)));
+
+        bookService.getBooks(new BookFilter(), PageRequest.of(0, 20));
+
+        verify(bookRepo).findAll(any(Pageable.class));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBooks_InvertedYearRange() {
+        bookService.getBooks(new BookFilter(null, null, 2010, 1990), PageRequest.of(0, 20));
+    }
+
+    // --- getBooksAfter (keyset) ---
+    @Test
+    public void testGetBooksAfter_FirstSliceReturnsNextCursor() {
+        List<Book> books = List.of(
+                new Book(1, "A", "Author", "Pub", 2000, 0),
+                new Book(2, "B", "Author", "Pub", 2000, 0),
+                new Book(3, "C", "Author", "Pub", 2000, 0));
+        when(bookRepo.findByIdGreaterThanOrderByIdAsc(eq(0), any(Limit.class))).thenReturn(books);
+
+        CursorPage<BookResponse> result = bookService.getBooksAfter("", 2);
+
+        Assert.assertEquals(result.getContent().size(), 2);
+        Assert.assertEquals(result.getContent().get(1).getId(), 2);
+        Assert.assertEquals(BookCursorCodec.decode(result.getNextCursor()), 2);
+        verify(bookRepo, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    public void testGetBooksAfter_LastSliceHasNoCursor() {
+        when(bookRepo.findByIdGreaterThanOrderByIdAsc(eq(2), any(Limit.class)))
+                .thenReturn(List.of(new Book(3, "C", "Author", "Pub", 2000, 0)));
+
+        CursorPage<BookResponse> result = bookService.getBooksAfter(BookCursorCodec.encode(2), 2);
+
+        Assert.assertEquals(result.getContent().size(), 1);
+        Assert.assertNull(result.getNextCursor());
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBooksAfter_InvalidCursor() {
+        bookService.getBooksAfter("not-a-cursor", 10);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBooksAfter_InvalidSize() {
+        bookService.getBooksAfter("", 0);
+    }
+
     // --- getBookById ---
     @Test
     public void testGetBookById() {
@@ -78,6 +239,54 @@ public class BookServiceTest {
         Assert.assertEquals(result.getName(), "Book 1");
     }
 
+    @Test
+    public void testGetBookById_CachedAfterFirstLoad() {
+        when(bookRepo.findById(1)).thenReturn(Optional.of(book));
+
+        bookService.getBookById(1);
+        BookResponse result = bookService.getBookById(1);
+
+        Assert.assertEquals(result.getName(), "Title");
+        verify(bookRepo, times(1)).findById(1);
+        Assert.assertEquals(bookCache.stats().getHits(), 1);
+        Assert.assertEquals(bookCache.stats().getMisses(), 1);
+    }
+
+    @Test
+    public void testGetBookById_NotFoundIsNotCached() {
+        when(bookRepo.findById(99)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                bookService.getBookById(99);
+                Assert.fail("Expected BookNotFoundException");
+            } catch (BookNotFoundException expected) {
+                // expected
+            }
+        }
+        verify(bookRepo, times(2)).findById(99);
+    }
+
+    @Test
+    public void testUpdateBook_InvalidatesCache() {
+        when(bookRepo.findById(1)).thenReturn(Optional.of(book));
+        bookService.getBookById(1);
+        stubUpdatedVersion(1);
+
+        bookService.updateBook(1, new BookRequest("Renamed", "Author", "Publisher", 2000));
+        book.setName("Renamed");
+
+        Assert.assertEquals(bookService.getBookById(1).getName(), "Renamed");
+        verify(bookCache).invalidate(1);
+    }
+
+    @Test
+    public void testDeleteBook_InvalidatesCache() {
+        when(bookRepo.deleteBookById(1)).thenReturn(1);
+        bookService.deleteBook(1);
+        verify(bookCache).invalidate(1);
+    }
+
     @Test(expectedExceptions = BookNotFoundException.class)
     public void testGetBookById_NotFoundUT() {
         when(bookRepo.findById(anyInt())).thenReturn(Optional.empty());
@@ -102,10 +311,30 @@ public class BookServiceTest {
         req.setName("New Book");
         req.setAuthor("Author");
 
-        when(bookRepo.existsByNameAndAuthor(anyString(), anyString())).thenReturn(true);
+        when(bookRepo.save(any(Book.class))).thenThrow(uniqueViolation());
         bookService.addBook(req);
     }
 
+    @Test
+    public void testAddBook_SingleInsertWithoutExistsCheck() {
+        bookService.addBook(request);
+        verify(bookRepo, times(1)).save(any(Book.class));
+        verify(bookRepo, never()).existsByNameAndAuthor(anyString(), anyString());
+    }
+
+    @Test(expectedExceptions = DataIntegrityViolationException.class)
+    public void testAddBook_OtherConstraintViolationIsNotDuplicate() {
+        when(bookRepo.save(any(Book.class)))
+                .thenThrow(new DataIntegrityViolationException("not null", new SQLException("not null", "23502")));
+        bookService.addBook(request);
+    }
+
+    @Test(expectedExceptions = DuplicateBookException.class)
+    public void testUpdateBook_ToExistingNameAndAuthor() {
+        when(bookRepo.updateById(anyInt(), any(), any(), any(), anyInt())).thenThrow(uniqueViolation());
+        bookService.updateBook(1, request);
+    }
+
     // --- updateBook ---
     @Test
     public void testUpdateBook_Success() {
@@ -115,34 +344,186 @@ public class BookServiceTest {
         req.setPublisher("Pub");
         req.setYearReleased(2024);
 
-        Book existing = new Book();
-        existing.setId(1);
-
-        when(bookRepo.findById(1)).thenReturn(Optional.of(existing));
+        stubUpdatedVersion(1);
 
         bookService.updateBook(1, req);
 
-        verify(bookRepo, times(1)).save(existing);
-        Assert.assertEquals(existing.getName(), "Updated");
+        verify(bookRepo, times(1)).updateById(1, "Updated", "Updated Author", "Pub", 2024);
+        verify(bookRepo, never()).findById(anyInt());
+        verify(bookRepo, never()).save(any(Book.class));
     }
 
     @Test(expectedExceptions = RuntimeException.class)
     public void testUpdateBook_NotFoundUT() {
-        when(bookRepo.findById(999)).thenReturn(Optional.empty());
+        stubUpdatedVersion(null);
+        when(bookRepo.findVersionById(999)).thenReturn(Optional.empty());
         bookService.updateBook(999, new BookRequest());
     }
 
+    @Test(expectedExceptions = PreconditionFailedException.class)
+    public void testUpdateBook_IfMatchVersionMismatch() {
+        stubUpdatedVersion(null);
+        when(bookRepo.findVersionById(1)).thenReturn(Optional.of(2));
+        bookService.updateBook(1, request, 1);
+    }
+
+    @Test
+    public void testUpdateBook_IfMatchVersionMatches() {
+        stubUpdatedVersion(3);
+        bookService.updateBook(1, request, 2);
+
+        verify(bookRepo).updateByIdAndVersion(1, 2, "Title", "Author", "Publisher", 2000);
+        ArgumentCaptor<BookChangedEvent> captor = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        Assert.assertEquals(captor.getValue().getBook().getVersion(), Integer.valueOf(3));
+    }
+
+    @Test
+    public void testUpdateBook_UnconditionalEventCarriesWrittenVersion() {
+        stubUpdatedVersion(7);
+        bookService.updateBook(1, request);
+
+        ArgumentCaptor<BookChangedEvent> captor = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        Assert.assertEquals(captor.getValue().getBook().getVersion(), Integer.valueOf(7));
+        verify(bookRepo, never()).findVersionById(anyInt());
+    }
+
+    @Test(expectedExceptions = BookNotFoundException.class)
+    public void testUpdateBook_IfMatchOnMissingBook() {
+        stubUpdatedVersion(null);
+        when(bookRepo.findVersionById(1)).thenReturn(Optional.empty());
+        bookService.updateBook(1, request, 2);
+    }
+
+    @Test
+    public void testGetBookVersion_UsesProjectionWhenNotCached() {
+        when(bookRepo.findVersionById(1)).thenReturn(Optional.of(5));
+        Assert.assertEquals(bookService.getBookVersion(1), Integer.valueOf(5));
+        verify(bookRepo, never()).findById(anyInt());
+    }
+
+    @Test
+    public void testGetBookVersion_UsesCacheWhenPresent() {
+        book.setVersion(4);
+        when(bookRepo.findById(1)).thenReturn(Optional.of(book));
+        bookService.getBookById(1);
+
+        Assert.assertEquals(bookService.getBookVersion(1), Integer.valueOf(4));
+        verify(bookRepo, never()).findVersionById(anyInt());
+    }
+
+    // --- getBooksByIds ---
+    @Test
+    public void testGetBooksByIds_KeepsRequestOrderAndReportsMissing() {
+        when(bookRepo.findById(3)).thenReturn(Optional.of(new Book(3, "Cached", "Author", "Pub", 2000, 0)));
+        bookService.getBookById(3);
+        when(bookRepo.findAllById(anyIterable())).thenReturn(List.of(
+                new Book(1, "One", "Author", "Pub", 2000, 0),
+                new Book(2, "Two", "Author", "Pub", 2000, 0)));
+
+        BookBatchResponse result = bookService.getBooksByIds(List.of(2, 404, 3, 1, 2));
+
+        Assert.assertEquals(result.getBooks().stream().map(BookResponse::getId).toList(), List.of(2, 3, 1));
+        Assert.assertEquals(result.getMissingIds(), List.of(404));
+        verify(bookRepo, times(1)).findAllById(List.of(2, 404, 1));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBooksByIds_TooManyIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            ids.add(i);
+        }
+        bookService.getBooksByIds(ids);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBooksByIds_NullId() {
+        bookService.getBooksByIds(Arrays.asList(1, null, 2));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBooksByIds_NullBody() {
+        bookService.getBooksByIds(null);
+    }
+
+    // --- sparse fieldsets ---
+    @Test
+    public void testGetBookFields_SelectsOnlyRequestedColumns() {
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(Map.of("id", 1, "name", "Title")));
+        when(bookRepo.findAllFields(List.of("id", "name"), null, PageRequest.of(0, 10))).thenReturn(page);
+
+        Page<Map<String, Object>> result = bookService.getBookFields(" id, name ,id", null, PageRequest.of(0, 10));
+
+        Assert.assertEquals(result.getContent().get(0).keySet(), Set.of("id", "name"));
+        verify(bookRepo, never()).findAll(any(Pageable.class));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBookFields_UnknownField() {
+        bookService.getBookFields("id,secret", null, PageRequest.of(0, 10));
+    }
+
+    @Test
+    public void testGetBookFields_FilterIsPushedDown() {
+        BookFilter filter = new BookFilter();
+        filter.setAuthor("Author");
+        when(bookRepo.findAllFields(anyList(), any(), any(Pageable.class))).thenReturn(Page.empty());
+
+        bookService.getBookFields("id", filter, PageRequest.of(0, 10));
+
+        verify(bookRepo).findAllFields(eq(List.of("id")), notNull(), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testGetBookFields_UnknownSortProperty() {
+        bookService.getBookFields("id", null, PageRequest.of(0, 10, Sort.by("secret")));
+    }
+
+    @Test(expectedExceptions = BookNotFoundException.class)
+    public void testGetBookFieldsById_NotFound() {
+        when(bookRepo.findFieldsById(99, List.of("name"))).thenReturn(Optional.empty());
+        bookService.getBookFieldsById(99, "name");
+    }
+
+    // --- change events ---
+    @Test
+    public void testAddBook_PublishesCreatedEvent() {
+        bookService.addBook(request);
+
+        ArgumentCaptor<BookChangedEvent> captor = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        Assert.assertEquals(captor.getValue().getType(), BookChangeType.CREATED);
+        Assert.assertEquals(captor.getValue().getBook().getName(), "Title");
+    }
+
+    @Test
+    public void testDeleteBook_PublishesDeletedEvent() {
+        when(bookRepo.deleteBookById(1)).thenReturn(1);
+        bookService.deleteBook(1);
+
+        verify(eventPublisher).publishEvent(new BookChangedEvent(BookChangeType.DELETED, 1, null));
+    }
+
+    @Test
+    public void testSearchBooks_DelegatesToIndex() {
+        when(bookSearchIndex.search("tolk", Pageable.ofSize(10))).thenReturn(Page.empty());
+        Assert.assertTrue(bookService.searchBooks("tolk", Pageable.ofSize(10)).isEmpty());
+    }
+
     // --- deleteBook ---
     @Test
     public void testDeleteBook_Success() {
-        when(bookRepo.existsById(1)).thenReturn(true);
+        when(bookRepo.deleteBookById(1)).thenReturn(1);
         bookService.deleteBook(1);
-        verify(bookRepo).deleteById(1);
+        verify(bookRepo).deleteBookById(1);
+        verify(bookRepo, never()).existsById(anyInt());
     }
 
     @Test(expectedExceptions = BookNotFoundException.class)
     public void testDeleteBook_NotFound() {
-        when(bookRepo.existsById(1)).thenReturn(false);
+        when(bookRepo.deleteBookById(1)).thenReturn(0);
         bookService.deleteBook(1);
     }
     @Test
@@ -184,38 +565,38 @@ public class BookServiceTest {
 
     @Test(expectedExceptions = DuplicateBookException.class)
     public void testAddBook_Duplicate() {
-        when(bookRepo.existsByNameAndAuthor(anyString(), anyString())).thenReturn(true);
+        when(bookRepo.save(any(Book.class))).thenThrow(uniqueViolation());
         bookService.addBook(request);
     }
 
     @Test
     public void testUpdateBook_Existing() {
-        when(bookRepo.findById(1)).thenReturn(Optional.of(book));
+        stubUpdatedVersion(1);
         BookRequest updated = new BookRequest("New", "New", "NewPub", 2022);
 
         bookService.updateBook(1, updated);
 
-        verify(bookRepo, times(1)).save(book);
-        Assert.assertEquals(book.getName(), "New");
-        Assert.assertEquals(book.getYearReleased(), 2022);
+        verify(bookRepo, times(1)).updateById(1, "New", "New", "NewPub", 2022);
     }
 
     @Test(expectedExceptions = RuntimeException.class)
     public void testUpdateBook_NotFound() {
-        when(bookRepo.findById(1)).thenReturn(Optional.empty());
+        stubUpdatedVersion(null);
+        when(bookRepo.findVersionById(1)).thenReturn(Optional.empty());
         bookService.updateBook(1, request);
     }
 
     @Test
     public void testDeleteBook_ValidId() {
-        when(bookRepo.existsById(1)).thenReturn(true);
+        when(bookRepo.deleteBookById(1)).thenReturn(1);
         bookService.deleteBook(1);
-        verify(bookRepo).deleteById(1);
+        verify(bookRepo).deleteBookById(1);
+        verify(bookRepo, never()).existsById(anyInt());
     }
 
     @Test(expectedExceptions = BookNotFoundException.class)
     public void testDeleteBook_InvalidId() {
-        when(bookRepo.existsById(1)).thenReturn(false);
+        when(bookRepo.deleteBookById(1)).thenReturn(0);
         bookService.deleteBook(1);
     }
 }
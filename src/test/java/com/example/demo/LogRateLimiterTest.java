@@ -0,0 +1,50 @@
+package com.example.demo;
+
+import com.example.demo.exception.BookNotFoundException;
+import com.example.demo.exception.DomainException;
+import com.example.demo.utils.LogRateLimiter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class LogRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testLetsPermitsThroughThenSuppresses() {
+        LogRateLimiter limiter = new LogRateLimiter(2, Duration.ofSeconds(1));
+        long now = System.nanoTime();
+
+        Assert.assertEquals(limiter.tryAcquire(now), 0);
+        Assert.assertEquals(limiter.tryAcquire(now), 0);
+        Assert.assertEquals(limiter.tryAcquire(now), -1);
+        Assert.assertEquals(limiter.tryAcquire(now), -1);
+    }
+
+    @Test
+    public void testReportsSuppressedCountInNextWindow() {
+        LogRateLimiter limiter = new LogRateLimiter(1, Duration.ofSeconds(1));
+        long now = System.nanoTime();
+
+        Assert.assertEquals(limiter.tryAcquire(now), 0);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(limiter.tryAcquire(now), -1);
+        }
+
+        Assert.assertEquals(limiter.tryAcquire(now + SECOND), 5);
+        Assert.assertEquals(limiter.tryAcquire(now + SECOND), -1);
+    }
+
+    @Test
+    public void testDomainExceptionsCaptureNoStackTrace() {
+        DomainException ex = new BookNotFoundException("Book with ID 1 not found");
+
+        Assert.assertEquals(ex.getStackTrace().length, 0);
+        Assert.assertEquals(ex.getMessage(), "Book with ID 1 not found");
+        ex.addSuppressed(new IllegalStateException());
+        Assert.assertEquals(ex.getSuppressed().length, 0);
+    }
+}
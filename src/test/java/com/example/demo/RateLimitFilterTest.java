@@ -0,0 +1,173 @@
+package com.example.demo;
+
+import com.example.demo.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.demo.ratelimit.ClientRateLimiter;
+import com.example.demo.ratelimit.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RateLimitFilterTest {
+
+    private SimpleMeterRegistry registry;
+
+    private AtomicInteger calls;
+
+    private final FilterChain countingChain = (request, response) -> calls.incrementAndGet();
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        calls = new AtomicInteger();
+    }
+
+    private RateLimitFilter filter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        return new RateLimitFilter(rateLimiter, concurrencyLimiter, new ObjectMapper(), registry);
+    }
+
+    private MockHttpServletResponse get(RateLimitFilter filter, String path, String remoteAddr, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    public void testBucketAllowsBurstThenRefills() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 100, Duration.ofMinutes(1));
+        long now = 0;
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(limiter.tryAcquire("a", now), 0);
+        }
+        long wait = limiter.tryAcquire("a", now);
+
+        Assert.assertEquals(wait, TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(limiter.tryAcquire("b", now), 0);
+        Assert.assertEquals(limiter.tryAcquire("a", now + wait), 0);
+    }
+
+    @Test
+    public void testRateLimitedClientGets429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(new ClientRateLimiter(1, 1, 100, Duration.ofMinutes(1)),
+                new AdaptiveConcurrencyLimiter(10, 1, 10, Duration.ofSeconds(1)));
+
+        Assert.assertEquals(get(filter, "/books", "10.0.0.1", countingChain).getStatus(), 200);
+        MockHttpServletResponse rejected = get(filter, "/books/1", "10.0.0.1", countingChain);
+        MockHttpServletResponse otherClient = get(filter, "/books/1", "10.0.0.2", countingChain);
+
+        Assert.assertEquals(rejected.getStatus(), 429);
+        Assert.assertEquals(rejected.getHeader("Retry-After"), "1");
+        Assert.assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        Assert.assertEquals(otherClient.getStatus(), 200);
+        Assert.assertEquals(calls.get(), 2);
+        Assert.assertEquals(registry.counter("bookstore.ratelimit.rejected", "reason", "rate").count(), 1.0);
+    }
+
+    @Test
+    public void testApiKeyHeaderDoesNotBypassTheLimit() throws Exception {
+        RateLimitFilter filter = filter(new ClientRateLimiter(1, 1, 100, Duration.ofMinutes(1)),
+                new AdaptiveConcurrencyLimiter(10, 1, 10, Duration.ofSeconds(1)));
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+            request.setRemoteAddr("10.0.0.1");
+            request.addHeader("X-API-Key", "key-" + i);
+            filter.doFilter(request, new MockHttpServletResponse(), countingChain);
+        }
+
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void testConcurrencyLimitSheds503() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(1));
+        RateLimitFilter filter = filter(new ClientRateLimiter(1000, 1000, 100, Duration.ofMinutes(1)), concurrencyLimiter);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        get(filter, "/books", "10.0.0.1", (request, response) -> nested[0] = get(filter, "/books", "10.0.0.2", countingChain));
+
+        Assert.assertEquals(nested[0].getStatus(), 503);
+        Assert.assertEquals(concurrencyLimiter.inFlight(), 0);
+        Assert.assertEquals(registry.counter("bookstore.ratelimit.rejected", "reason", "concurrency").count(), 1.0);
+    }
+
+    @Test
+    public void testOtherPathsAreNotLimited() throws Exception {
+        RateLimitFilter filter = filter(new ClientRateLimiter(1, 1, 100, Duration.ofMinutes(1)),
+                new AdaptiveConcurrencyLimiter(10, 1, 10, Duration.ofSeconds(1)));
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(get(filter, "/actuator/health", "10.0.0.1", countingChain).getStatus(), 200);
+        }
+        Assert.assertEquals(calls.get(), 5);
+    }
+
+    @Test
+    public void testSlowRequestsInFlightTogetherCutTheLimitOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 40, Duration.ofMillis(100));
+        long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        long slow = TimeUnit.MILLISECONDS.toNanos(500);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(slow, now + i);
+        }
+        Assert.assertEquals(limiter.limit(), 18);
+
+        Assert.assertTrue(limiter.tryAcquire());
+        limiter.release(slow, now + slow + 1);
+        Assert.assertEquals(limiter.limit(), 16);
+    }
+
+    @Test
+    public void testLongRunningEndpointsDoNotFeedTheLimit() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(20, 4, 40, Duration.ofNanos(1));
+        RateLimitFilter filter = filter(new ClientRateLimiter(1000, 1000, 100, Duration.ofMinutes(1)), concurrencyLimiter);
+        FilterChain slowChain = (request, response) -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Assert.assertEquals(get(filter, "/books/export", "10.0.0.1", slowChain).getStatus(), 200);
+
+        Assert.assertEquals(concurrencyLimiter.limit(), 20);
+        Assert.assertEquals(concurrencyLimiter.inFlight(), 0);
+    }
+
+    @Test
+    public void testLimitShrinksOnSlowRequestsAndGrowsOnFastOnes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 40, Duration.ofMillis(100));
+
+        Assert.assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500));
+        Assert.assertEquals(limiter.limit(), 18);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        Assert.assertTrue(limiter.limit() > 18);
+        Assert.assertEquals(limiter.inFlight(), 0);
+    }
+}
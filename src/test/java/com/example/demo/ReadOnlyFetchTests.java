@@ -0,0 +1,64 @@
+package com.example.demo;
+
+import com.example.demo.model.Book;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.service.BookService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:${random.uuid}", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+public class ReadOnlyFetchTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @Test
+    public void readOnlyPageIsLoadedWithoutSnapshotsAndManualFlush() {
+        readOnlyTransaction().executeWithoutResult(status -> {
+            Page<Book> page = bookRepository.findAll(PageRequest.of(0, 20));
+            Session session = entityManager.unwrap(Session.class);
+
+            Assert.assertTrue(session.isDefaultReadOnly());
+            Assert.assertEquals(session.getHibernateFlushMode(), FlushMode.MANUAL);
+            Assert.assertEquals(session.getStatistics().getEntityCount(), 20);
+            page.forEach(book -> Assert.assertTrue(session.isReadOnly(book)));
+        });
+    }
+
+    @Test
+    public void projectionsDoNotPopulateThePersistenceContext() {
+        readOnlyTransaction().executeWithoutResult(status -> {
+            bookService.getBookFields("id,name", null, PageRequest.of(0, 20));
+            Session session = entityManager.unwrap(Session.class);
+
+            Assert.assertEquals(session.getStatistics().getEntityCount(), 0);
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo;
+
+import com.example.demo.cache.SingleFlight;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class SingleFlightTest {
+
+    private static final int THREADS = 32;
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> Supplier<T> slow(AtomicInteger loads, T value) {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        };
+    }
+
+    private <T> List<Future<T>> wave(int threads, Callable<T> call) {
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                barrier.await();
+                return call.call();
+            }));
+        }
+        return futures;
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoadPerWave() throws Exception {
+        SingleFlight<String, Object> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int round = 1; round <= 5; round++) {
+            Object value = new Object();
+            for (Future<Object> future : wave(THREADS, () -> flights.execute("page-0", slow(loads, value)))) {
+                Assert.assertSame(future.get(10, TimeUnit.SECONDS), value);
+            }
+            Assert.assertEquals(loads.get(), round);
+            Assert.assertEquals(flights.inFlightCount(), 0);
+        }
+    }
+
+    @Test
+    public void testDifferentKeysLoadIndependently() throws Exception {
+        SingleFlight<Integer, Integer> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        AtomicInteger next = new AtomicInteger();
+
+        List<Future<Integer>> futures = wave(THREADS, () -> {
+            int key = next.getAndIncrement() % 2;
+            return flights.execute(key, slow(loads, key));
+        });
+        for (Future<Integer> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(loads.get(), 2);
+    }
+
+    @Test
+    public void testFailureIsSharedAndNotRemembered() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<String> failing = () -> {
+            slow(loads, null).get();
+            throw new IllegalStateException("db down");
+        };
+
+        for (Future<String> future : wave(THREADS, () -> {
+            try {
+                return flights.execute("k", failing);
+            } catch (IllegalStateException ex) {
+                return ex.getMessage();
+            }
+        })) {
+            Assert.assertEquals(future.get(10, TimeUnit.SECONDS), "db down");
+        }
+
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertEquals(flights.execute("k", () -> "recovered"), "recovered");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo;
+
+import com.example.demo.exception.BookNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.model.Book;
+import com.example.demo.model.BookRequest;
+import com.example.demo.repo.BookRepo;
+import com.example.demo.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:${random.uuid}", "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"})
+public class SingleStatementWriteTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepo bookRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Book book;
+
+    @BeforeMethod
+    public void setUp() {
+        book = bookRepository.save(new Book(0, "Statement " + System.nanoTime(), "Counter", "Pub", 2020, null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void updateIssuesOneStatement() {
+        bookService.updateBook(book.getId(), new BookRequest(book.getName(), "Counter", "New Pub", 2021));
+
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+        Assert.assertEquals(statistics.getEntityLoadCount(), 0);
+        Assert.assertEquals(bookService.getBookVersion(book.getId()), Integer.valueOf(book.getVersion() + 1));
+    }
+
+    @Test
+    public void conditionalUpdateIssuesOneStatement() {
+        bookService.updateBook(book.getId(), new BookRequest(book.getName(), "Counter", "New Pub", 2021),
+                book.getVersion());
+
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+    }
+
+    @Test
+    public void staleConditionalUpdateIsRejected() {
+        Assert.assertThrows(PreconditionFailedException.class, () -> bookService.updateBook(book.getId(),
+                new BookRequest(book.getName(), "Counter", "New Pub", 2021), book.getVersion() + 1));
+    }
+
+    @Test
+    public void deleteIssuesOneStatement() {
+        bookService.deleteBook(book.getId());
+
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+        Assert.assertEquals(statistics.getEntityLoadCount(), 0);
+        Assert.assertFalse(bookRepository.existsById(book.getId()));
+    }
+
+    @Test
+    public void deleteOfMissingBookIssuesOneStatement() {
+        Assert.assertThrows(BookNotFoundException.class, () -> bookService.deleteBook(Integer.MAX_VALUE));
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+    }
+}